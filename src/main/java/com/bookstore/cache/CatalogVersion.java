@@ -0,0 +1,95 @@
+package com.bookstore.cache;
+
+import com.bookstore.entity.Book;
+import com.bookstore.service.BookChangeListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Version counters for the catalog as a whole and for individual books, bumped on
+ * every committed write. Anything derived from catalog data (such as cached
+ * responses) records the version it was built from and is stale once it differs.
+ * <p>
+ * Book versions are kept in a fixed number of stripes chosen by a hash of the book id,
+ * so memory stays constant however many books are written. Books sharing a stripe share
+ * a version: a write to one also makes the others' derived data stale, which costs a
+ * rebuild but never serves stale data. No book reports less than the version of the
+ * last bulk change. Ordered last among the change listeners so that versions move only
+ * after the data readers see has.
+ * <p>
+ * Only writes made through this instance move the versions; writes made by other
+ * instances sharing the database do not (see {@link ResponseByteCache} for the bound
+ * that puts on staleness).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class CatalogVersion implements BookChangeListener {
+
+    private static final int STRIPE_BITS = 12;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    /**
+     * Version of the last write to any book of each stripe.
+     */
+    private final AtomicLongArray stripeVersions = new AtomicLongArray(1 << STRIPE_BITS);
+
+    /**
+     * Catalog version of the last bulk change; the floor for every book version.
+     */
+    private volatile long bulkVersion;
+
+    /**
+     * @return the current version of the whole catalog
+     */
+    public long current() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * @param bookId the book id
+     * @return the current version of one book
+     */
+    public long ofBook(Long bookId) {
+        return Math.max(stripeVersions.get(stripe(bookId)), bulkVersion);
+    }
+
+    @Override
+    public void bookSaved(Book book) {
+        bump(book.getBookId());
+    }
+
+    @Override
+    public void bookUpdated(Book previous, Book current) {
+        bump(current.getBookId());
+    }
+
+    @Override
+    public void bookDeleted(Book book) {
+        bump(book.getBookId());
+    }
+
+    @Override
+    public void catalogChanged() {
+        bulkVersion = catalogVersion.incrementAndGet();
+    }
+
+    /**
+     * Moves the book's stripe to a new version. Concurrent writes to one stripe keep the
+     * highest version, so a stripe never goes back.
+     */
+    private void bump(Long bookId) {
+        stripeVersions.accumulateAndGet(stripe(bookId), catalogVersion.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * Fibonacci hashing, so that consecutive ids land in different stripes.
+     */
+    private static int stripe(long bookId) {
+        return (int) ((bookId * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - STRIPE_BITS));
+    }
+}
@@ -0,0 +1,189 @@
+package com.bookstore.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of ready-to-send JSON response bodies.
+ * <p>
+ * Each entry holds the encoded bytes, plus a gzip variant for larger bodies, and the
+ * {@link CatalogVersion} it was built from. A lookup with a newer version is a miss,
+ * so writes never need to find and evict entries. The cache is bounded by total bytes
+ * and evicts least recently used entries. Hits are copied straight to the servlet
+ * output stream without touching Jackson.
+ * <p>
+ * Versions only move on writes made through this instance. With several instances
+ * behind a load balancer, a write on one leaves the others' entries current, so entries
+ * also expire {@code max-age-ms} after they were built, which bounds how long another
+ * instance's write can go unseen. The cache is off by default for that reason.
+ */
+@Component
+public class ResponseByteCache {
+
+    /**
+     * Rough per-entry overhead (map node, entry object, array headers) counted against the budget.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${bookstore.response-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${bookstore.response-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    /**
+     * Bodies at least this large also get a pre-compressed gzip variant.
+     */
+    @Value("${bookstore.response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    /**
+     * How long an entry is served after it was built; {@code 0} keeps it until its version moves.
+     */
+    @Value("${bookstore.response-cache.max-age-ms:30000}")
+    private long maxAgeMs;
+
+    /**
+     * Access-ordered, so iteration starts at the least recently used entry. Guarded by {@code this}.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long totalBytes;
+
+    /**
+     * An encoded response body.
+     *
+     * @param version  the version the body was built from
+     * @param identity the uncompressed JSON bytes
+     * @param gzip     the gzip-compressed bytes, or {@code null} for small bodies
+     * @param builtAt  when the body was encoded, in {@link System#nanoTime()} units
+     */
+    public record Entry(long version, byte[] identity, byte[] gzip, long builtAt) {
+
+        long bytes() {
+            return ENTRY_OVERHEAD + identity.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    /**
+     * Writes the cached body for {@code key} at {@code version} to the response, loading
+     * and encoding it first on a miss.
+     *
+     * @param key      the cache key, e.g. {@code book:42}
+     * @param version  the current version of the data behind the key
+     * @param loader   produces the value to serialize on a miss
+     * @param request  the HTTP request, checked for gzip support
+     * @param response the HTTP response to write to
+     * @throws IOException if writing the response fails
+     */
+    public void write(String key, long version, Supplier<?> loader,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Entry entry = get(key, version);
+        if (entry == null) {
+            entry = encode(version, loader.get());
+            put(key, entry);
+        }
+
+        byte[] body = entry.identity();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (entry.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = entry.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Encodes and caches a body ahead of the first request for it, e.g. during warm-up.
+     *
+     * @param key     the cache key
+     * @param version the current version of the data behind the key
+     * @param loader  produces the value to serialize
+     */
+    public void preload(String key, long version, Supplier<?> loader) {
+        if (enabled && get(key, version) == null) {
+            put(key, encode(version, loader.get()));
+        }
+    }
+
+    private Entry get(String key, long version) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            boolean expired = entry != null && maxAgeMs > 0
+                    && System.nanoTime() - entry.builtAt() > TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+            if (entry != null && entry.version() == version && !expired) {
+                return entry;
+            }
+            if (entry != null && (entry.version() < version || expired)) {
+                entries.remove(key);
+                totalBytes -= entry.bytes();
+            }
+        }
+        return null;
+    }
+
+    private void put(String key, Entry entry) {
+        if (!enabled || entry.bytes() > maxBytes) {
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.get(key);
+            if (previous != null && previous.version() > entry.version()) {
+                return;
+            }
+            entries.put(key, entry);
+            totalBytes += entry.bytes() - (previous == null ? 0 : previous.bytes());
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().bytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    private Entry encode(long version, Object value) {
+        long builtAt = System.nanoTime();
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(value);
+            return new Entry(version, identity, identity.length >= gzipMinBytes ? gzip(identity) : null, builtAt);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.bookstore.catalog;
+
+import java.util.Arrays;
+
+/**
+ * An immutable, id-ordered slice of the catalog stored column by column.
+ * Prices are kept as primitive doubles ({@code NaN} for a missing price) and
+ * authors and genres as dictionary codes. Changes produce a new segment; readers
+ * holding the old one are never affected.
+ */
+final class CatalogSegment {
+
+    final long[] ids;
+
+    final String[] titles;
+
+    final int[] authorCodes;
+
+    final int[] genreCodes;
+
+    final double[] prices;
+
+    CatalogSegment(long[] ids, String[] titles, int[] authorCodes, int[] genreCodes, double[] prices) {
+        this.ids = ids;
+        this.titles = titles;
+        this.authorCodes = authorCodes;
+        this.genreCodes = genreCodes;
+        this.prices = prices;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long firstId() {
+        return ids[0];
+    }
+
+    long lastId() {
+        return ids[ids.length - 1];
+    }
+
+    /**
+     * @param id the book id
+     * @return the row of the id, or a negative insertion point as in {@link Arrays#binarySearch(long[], long)}
+     */
+    int indexOf(long id) {
+        return Arrays.binarySearch(ids, id);
+    }
+
+    /**
+     * Returns a copy with the row at {@code index} replaced.
+     */
+    CatalogSegment withRow(int index, long id, String title, int authorCode, int genreCode, double price) {
+        CatalogSegment copy = new CatalogSegment(ids.clone(), titles.clone(), authorCodes.clone(),
+                genreCodes.clone(), prices.clone());
+        copy.setRow(index, id, title, authorCode, genreCode, price);
+        return copy;
+    }
+
+    /**
+     * Returns a copy with a new row inserted at {@code index}.
+     */
+    CatalogSegment withInsertedRow(int index, long id, String title, int authorCode, int genreCode, double price) {
+        int size = size();
+        CatalogSegment copy = new CatalogSegment(new long[size + 1], new String[size + 1], new int[size + 1],
+                new int[size + 1], new double[size + 1]);
+        copy.copyRows(this, 0, 0, index);
+        copy.copyRows(this, index, index + 1, size - index);
+        copy.setRow(index, id, title, authorCode, genreCode, price);
+        return copy;
+    }
+
+    /**
+     * Returns a copy without the row at {@code index}.
+     */
+    CatalogSegment withoutRow(int index) {
+        int size = size();
+        CatalogSegment copy = new CatalogSegment(new long[size - 1], new String[size - 1], new int[size - 1],
+                new int[size - 1], new double[size - 1]);
+        copy.copyRows(this, 0, 0, index);
+        copy.copyRows(this, index + 1, index, size - index - 1);
+        return copy;
+    }
+
+    /**
+     * Returns rows {@code [from, to)} as a new segment.
+     */
+    CatalogSegment slice(int from, int to) {
+        return new CatalogSegment(Arrays.copyOfRange(ids, from, to), Arrays.copyOfRange(titles, from, to),
+                Arrays.copyOfRange(authorCodes, from, to), Arrays.copyOfRange(genreCodes, from, to),
+                Arrays.copyOfRange(prices, from, to));
+    }
+
+    private void setRow(int index, long id, String title, int authorCode, int genreCode, double price) {
+        ids[index] = id;
+        titles[index] = title;
+        authorCodes[index] = authorCode;
+        genreCodes[index] = genreCode;
+        prices[index] = price;
+    }
+
+    private void copyRows(CatalogSegment source, int sourceIndex, int targetIndex, int length) {
+        System.arraycopy(source.ids, sourceIndex, ids, targetIndex, length);
+        System.arraycopy(source.titles, sourceIndex, titles, targetIndex, length);
+        System.arraycopy(source.authorCodes, sourceIndex, authorCodes, targetIndex, length);
+        System.arraycopy(source.genreCodes, sourceIndex, genreCodes, targetIndex, length);
+        System.arraycopy(source.prices, sourceIndex, prices, targetIndex, length);
+    }
+}
@@ -0,0 +1,295 @@
+package com.bookstore.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot file of the in-memory catalog.
+ * <p>
+ * A fixed 64-byte header (magic, format version, watermark, counts, body length and the
+ * CRC32 of the body) is followed by the body: the author and genre dictionaries, then
+ * every column as one contiguous array ({@code ids}, author codes, genre codes, prices,
+ * title lengths) and finally the UTF-8 title bytes. Reading maps the file and copies each
+ * column out with a single bulk get, so loading costs roughly one pass over the file.
+ * <p>
+ * Files are written next to the target and moved into place atomically, so a crash while
+ * writing leaves the previous snapshot intact.
+ */
+final class CatalogSnapshot {
+
+    static final int MAGIC = 0x424B4353;
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+
+    /**
+     * A snapshot read back from disk.
+     *
+     * @param state     the catalog contents
+     * @param watermark the wall-clock time, in epoch milliseconds, the snapshot was taken at
+     */
+    record Loaded(ColumnarCatalog.State state, long watermark) {
+    }
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Writes the catalog to {@code path}, replacing any previous snapshot.
+     *
+     * @param path      the snapshot file
+     * @param state     the catalog contents to write
+     * @param watermark the time the contents are known to be complete up to
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path path, ColumnarCatalog.State state, long watermark) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            CountingOutputStream counter = new CountingOutputStream(Channels.newOutputStream(channel));
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(counter, crc), 1 << 16));
+
+            int authorCount = writeDictionary(out, state.authors());
+            int genreCount = writeDictionary(out, state.genres());
+            CatalogSegment[] segments = state.segments();
+            for (CatalogSegment segment : segments) {
+                for (long id : segment.ids) {
+                    out.writeLong(id);
+                }
+            }
+            for (CatalogSegment segment : segments) {
+                for (int code : segment.authorCodes) {
+                    out.writeInt(code);
+                }
+            }
+            for (CatalogSegment segment : segments) {
+                for (int code : segment.genreCodes) {
+                    out.writeInt(code);
+                }
+            }
+            for (CatalogSegment segment : segments) {
+                for (double price : segment.prices) {
+                    out.writeDouble(price);
+                }
+            }
+            List<byte[]> titles = new ArrayList<>(state.size());
+            for (CatalogSegment segment : segments) {
+                for (String title : segment.titles) {
+                    byte[] bytes = title == null ? null : title.getBytes(StandardCharsets.UTF_8);
+                    titles.add(bytes);
+                    out.writeInt(bytes == null ? -1 : bytes.length);
+                }
+            }
+            for (byte[] title : titles) {
+                if (title != null) {
+                    out.write(title);
+                }
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(watermark)
+                    .putLong(System.currentTimeMillis())
+                    .putInt(titles.size())
+                    .putInt(authorCount)
+                    .putInt(genreCount)
+                    .putInt(0)
+                    .putLong(counter.count)
+                    .putLong(crc.getValue())
+                    .putLong(0)
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps and decodes a snapshot file.
+     *
+     * @param path the snapshot file
+     * @return the catalog contents and their watermark
+     * @throws IOException if the file cannot be read, has another format version or fails validation
+     */
+    static Loaded read(Path path) throws IOException {
+        MappedByteBuffer file;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Snapshot is truncated");
+            }
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is larger than 2 GB");
+            }
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (file.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        int formatVersion = file.getInt(4);
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + formatVersion);
+        }
+        long watermark = file.getLong(8);
+        int rows = file.getInt(24);
+        int authorCount = file.getInt(28);
+        int genreCount = file.getInt(32);
+        long bodyLength = file.getLong(40);
+        long expectedCrc = file.getLong(48);
+        if (bodyLength != file.capacity() - HEADER_SIZE || rows < 0 || authorCount < 0 || genreCount < 0) {
+            throw new IOException("Snapshot header does not match the file size");
+        }
+
+        ByteBuffer body = file.slice(HEADER_SIZE, (int) bodyLength);
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        if (crc.getValue() != expectedCrc) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+
+        try {
+            StringDictionary authors = readDictionary(body, authorCount);
+            StringDictionary genres = readDictionary(body, genreCount);
+
+            long[] ids = new long[rows];
+            body.asLongBuffer().get(ids);
+            body.position(body.position() + rows * Long.BYTES);
+            int[] authorCodes = readInts(body, rows);
+            int[] genreCodes = readInts(body, rows);
+            double[] prices = new double[rows];
+            body.asDoubleBuffer().get(prices);
+            body.position(body.position() + rows * Double.BYTES);
+            String[] titles = readStrings(body, rows);
+
+            for (int i = 0; i < rows; i++) {
+                if (i > 0 && ids[i] <= ids[i - 1]
+                        || authorCodes[i] < StringDictionary.NULL_CODE || authorCodes[i] >= authorCount
+                        || genreCodes[i] < StringDictionary.NULL_CODE || genreCodes[i] >= genreCount) {
+                    throw new IOException("Snapshot row " + i + " is inconsistent");
+                }
+            }
+
+            int segmentCount = (rows + ColumnarCatalog.SEGMENT_SIZE - 1) / ColumnarCatalog.SEGMENT_SIZE;
+            CatalogSegment[] segments = new CatalogSegment[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                int from = s * ColumnarCatalog.SEGMENT_SIZE;
+                int to = Math.min(rows, from + ColumnarCatalog.SEGMENT_SIZE);
+                segments[s] = new CatalogSegment(Arrays.copyOfRange(ids, from, to), Arrays.copyOfRange(titles, from, to),
+                        Arrays.copyOfRange(authorCodes, from, to), Arrays.copyOfRange(genreCodes, from, to),
+                        Arrays.copyOfRange(prices, from, to));
+            }
+            return new Loaded(new ColumnarCatalog.State(segments, authors, genres, rows), watermark);
+        } catch (RuntimeException e) {
+            throw new IOException("Snapshot body is malformed", e);
+        }
+    }
+
+    private static int writeDictionary(DataOutputStream out, StringDictionary dictionary) throws IOException {
+        int count = dictionary.size();
+        byte[][] values = new byte[count][];
+        for (int code = 0; code < count; code++) {
+            values[code] = dictionary.decode(code).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(values[code].length);
+        }
+        for (byte[] value : values) {
+            out.write(value);
+        }
+        return count;
+    }
+
+    private static StringDictionary readDictionary(ByteBuffer body, int count) throws IOException {
+        StringDictionary dictionary = new StringDictionary();
+        for (String value : readStrings(body, count)) {
+            if (value == null) {
+                throw new IOException("Snapshot dictionary contains a null value");
+            }
+            dictionary.encode(value);
+        }
+        if (dictionary.size() != count) {
+            throw new IOException("Snapshot dictionary contains duplicate values");
+        }
+        return dictionary;
+    }
+
+    private static int[] readInts(ByteBuffer body, int count) {
+        int[] values = new int[count];
+        body.asIntBuffer().get(values);
+        body.position(body.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Reads {@code count} lengths ({@code -1} for null) followed by the concatenated UTF-8 bytes.
+     */
+    private static String[] readStrings(ByteBuffer body, int count) {
+        int[] lengths = readInts(body, count);
+        long total = 0;
+        for (int length : lengths) {
+            total += Math.max(0, length);
+        }
+        byte[] bytes = new byte[Math.toIntExact(total)];
+        body.get(bytes);
+
+        String[] values = new String[count];
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] >= 0) {
+                values[i] = new String(bytes, offset, lengths[i], StandardCharsets.UTF_8);
+                offset += lengths[i];
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Counts the bytes written through it, for the body length in the header.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,588 @@
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.repository.BookStore;
+import com.bookstore.service.BookChangeListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory copy of the catalog, stored column by column so that list and
+ * filter reads never touch the database.
+ * <p>
+ * Ids and prices live in primitive arrays and authors and genres are dictionary-encoded
+ * into int codes, which keeps the heap footprint a fraction of a {@code List<Book>}.
+ * Rows are kept in id order in fixed-size immutable segments. Writes arrive through
+ * {@link BookChangeListener}, copy only the segment they touch and publish a new segment
+ * array, so readers work on a consistent snapshot without locking. Filters are tight loops
+ * over the columns and run on the common fork-join pool once the catalog is large enough.
+ * <p>
+ * The catalog is written to a binary snapshot file periodically and on shutdown (see
+ * {@link CatalogSnapshot}). On startup it is restored from that file and only the changes
+ * made since are read from the database, falling back to a full load when there is no
+ * usable snapshot.
+ * <p>
+ * Enabled with {@code bookstore.catalog.in-memory.enabled}; until it has loaded,
+ * {@link #isReady()} is {@code false} and callers should read from the database.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ColumnarCatalog implements BookChangeListener {
+
+    /**
+     * Target number of rows per segment. Segments grow up to twice this before being split.
+     */
+    static final int SEGMENT_SIZE = 4096;
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    @Autowired
+    private BookStore bookStore;
+
+    @Value("${bookstore.catalog.in-memory.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Catalogs with at least this many books are filtered in parallel.
+     */
+    @Value("${bookstore.catalog.in-memory.parallel-threshold:200000}")
+    private int parallelThreshold;
+
+    @Value("${bookstore.catalog.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${bookstore.catalog.snapshot.path:data/catalog.snapshot}")
+    private String snapshotPath;
+
+    /**
+     * Rows written up to this long before the snapshot watermark are re-read on restore,
+     * to cover clock skew between nodes and transactions that committed after stamping their rows.
+     */
+    @Value("${bookstore.catalog.snapshot.catch-up-margin-ms:60000}")
+    private long catchUpMarginMs;
+
+    /**
+     * Guards writes and the loading state. Readers never take it.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Changes received while a load is running, replayed once it has finished.
+     */
+    private final List<Runnable> pendingChanges = new ArrayList<>();
+
+    private volatile State state = State.empty();
+
+    private volatile boolean ready;
+
+    private boolean loading;
+
+    /**
+     * Number of changes applied so far, and the value it had when the last snapshot was written.
+     */
+    private long changeCount;
+
+    private long snapshotChangeCount = -1;
+
+    /**
+     * The segments and the dictionaries their codes refer to, published together.
+     */
+    record State(CatalogSegment[] segments, StringDictionary authors, StringDictionary genres, int size) {
+
+        static State empty() {
+            return new State(new CatalogSegment[0], new StringDictionary(), new StringDictionary(), 0);
+        }
+    }
+
+    /**
+     * Loads the catalog once the application context is up, from the snapshot file if
+     * there is a usable one, otherwise from the database.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        if (enabled && !(snapshotEnabled && restoreSnapshot())) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Writes the catalog to the snapshot file if it changed since the last snapshot.
+     * Failures are logged; the previous snapshot stays in place.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.catalog.snapshot.interval-ms:300000}",
+            initialDelayString = "${bookstore.catalog.snapshot.interval-ms:300000}")
+    public synchronized void writeSnapshot() {
+        if (!enabled || !snapshotEnabled || !ready) {
+            return;
+        }
+        long watermark = System.currentTimeMillis();
+        State current;
+        long changes;
+        synchronized (writeLock) {
+            if (loading || changeCount == snapshotChangeCount) {
+                return;
+            }
+            current = state;
+            changes = changeCount;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            CatalogSnapshot.write(Path.of(snapshotPath), current, watermark);
+            snapshotChangeCount = changes;
+            log.info("Wrote catalog snapshot of {} books to {} in {} ms", current.size(), snapshotPath,
+                    System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * Writes a final snapshot on shutdown, so the next start can restore from it.
+     */
+    @PreDestroy
+    public void close() {
+        writeSnapshot();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the number of books held in memory
+     */
+    public int size() {
+        return state.size();
+    }
+
+    /**
+     * Reloads the whole catalog from the database, keyset-paging by id. Writes that
+     * arrive during the load are queued and applied on top of the result.
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            pendingChanges.clear();
+        }
+
+        long started = System.currentTimeMillis();
+        State loaded;
+        try {
+            SegmentBuilder builder = new SegmentBuilder();
+            Long lastId = Long.MIN_VALUE;
+            while (true) {
+                List<Book> page = bookStore.findAfter(lastId, LOAD_PAGE_SIZE);
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (Book book : page) {
+                    builder.add(book);
+                }
+                lastId = page.get(page.size() - 1).getBookId();
+            }
+            loaded = builder.build();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                loading = false;
+                pendingChanges.clear();
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            state = loaded;
+            changeCount++;
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges.clear();
+            loading = false;
+            ready = true;
+        }
+        log.info("Loaded {} books into the in-memory catalog in {} ms", loaded.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Restores the catalog from the snapshot file, then catches up from the database:
+     * rows written since the snapshot's watermark are re-read, and an id-only scan finds
+     * rows deleted since (dropped) and rows the watermark cannot see (fetched by id).
+     * Writes that arrive meanwhile are queued as during {@link #rebuild()}.
+     *
+     * @return {@code false} if there is no usable snapshot and the catalog should be rebuilt
+     */
+    private boolean restoreSnapshot() {
+        Path path = Path.of(snapshotPath);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        synchronized (writeLock) {
+            if (loading) {
+                return true;
+            }
+            loading = true;
+            pendingChanges.clear();
+        }
+
+        long started = System.currentTimeMillis();
+        State restored;
+        List<Book> changed;
+        List<Long> deleted = new ArrayList<>();
+        List<Book> missing = new ArrayList<>();
+        try {
+            CatalogSnapshot.Loaded snapshot = CatalogSnapshot.read(path);
+            restored = snapshot.state();
+            List<Long> storedIds = bookStore.findAllIds();
+            changed = bookStore.findUpdatedSince(snapshot.watermark() - catchUpMarginMs);
+
+            List<Long> missingIds = new ArrayList<>();
+            diffIds(restored, storedIds, deleted, missingIds);
+            if (missingIds.size() > LOAD_PAGE_SIZE) {
+                throw new IOException(missingIds.size() + " books are missing from the snapshot");
+            }
+            for (Long id : missingIds) {
+                bookStore.findById(id).ifPresent(missing::add);
+            }
+        } catch (IOException e) {
+            log.warn("Not restoring the catalog from {}: {}", path, e.getMessage());
+            synchronized (writeLock) {
+                loading = false;
+                pendingChanges.clear();
+            }
+            return false;
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                loading = false;
+                pendingChanges.clear();
+            }
+            throw e;
+        }
+
+        synchronized (writeLock) {
+            state = restored;
+            changeCount++;
+            deleted.forEach(this::delete);
+            changed.forEach(this::upsert);
+            missing.forEach(this::upsert);
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges.clear();
+            loading = false;
+            ready = true;
+        }
+        log.info("Restored {} books from the catalog snapshot in {} ms ({} changed, {} deleted, {} missing)",
+                state.size(), System.currentTimeMillis() - started, changed.size(), deleted.size(), missing.size());
+        return true;
+    }
+
+    /**
+     * Compares the ids held in {@code state} with the ids stored in the database, both ascending.
+     *
+     * @param deleted receives ids that are only in the catalog
+     * @param missing receives ids that are only in the database
+     */
+    private static void diffIds(State state, List<Long> storedIds, List<Long> deleted, List<Long> missing) {
+        int stored = 0;
+        for (CatalogSegment segment : state.segments()) {
+            for (long id : segment.ids) {
+                while (stored < storedIds.size() && storedIds.get(stored) < id) {
+                    missing.add(storedIds.get(stored++));
+                }
+                if (stored < storedIds.size() && storedIds.get(stored) == id) {
+                    stored++;
+                } else {
+                    deleted.add(id);
+                }
+            }
+        }
+        while (stored < storedIds.size()) {
+            missing.add(storedIds.get(stored++));
+        }
+    }
+
+    /**
+     * @return every book, in id order
+     */
+    public List<Book> findAll() {
+        return filter(new BookFilter(null, null, null, null));
+    }
+
+    /**
+     * Returns the books matching the filter, in id order.
+     *
+     * @param filter the criteria; {@code null} fields match anything
+     * @return the matching books
+     */
+    public List<Book> filter(BookFilter filter) {
+        State current = state;
+        boolean[] genreMask = filter.genre() == null ? null : current.genres().matchIgnoreCase(filter.genre());
+        boolean[] authorMask = filter.author() == null ? null : current.authors().matchIgnoreCase(filter.author());
+        boolean priceRange = filter.hasPriceRange();
+        double minPrice = filter.minPrice() == null ? Double.NEGATIVE_INFINITY : filter.minPrice();
+        double maxPrice = filter.maxPrice() == null ? Double.POSITIVE_INFINITY : filter.maxPrice();
+
+        Stream<CatalogSegment> segments = Arrays.stream(current.segments());
+        if (current.size() >= parallelThreshold) {
+            segments = segments.parallel();
+        }
+        return segments
+                .map(segment -> scan(current, segment, genreMask, authorMask, priceRange, minPrice, maxPrice))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    @Override
+    public void bookSaved(Book book) {
+        long bookId = book.getBookId();
+        String title = book.getBookTitle();
+        String author = book.getBookAuthor();
+        String genre = book.getBookGenre();
+        Double price = book.getBookPrice();
+        apply(() -> upsert(bookId, title, author, genre, price));
+    }
+
+    @Override
+    public void bookUpdated(Book previous, Book current) {
+        bookSaved(current);
+    }
+
+    @Override
+    public void bookDeleted(Book book) {
+        long bookId = book.getBookId();
+        apply(() -> delete(bookId));
+    }
+
+    @Override
+    public void catalogChanged() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Applies a change now, queues it behind a running load, or drops it if the catalog is not in use.
+     */
+    private void apply(Runnable change) {
+        synchronized (writeLock) {
+            if (loading) {
+                pendingChanges.add(change);
+            } else if (ready) {
+                change.run();
+            }
+        }
+    }
+
+    /**
+     * Inserts or replaces the row of a book. Must hold {@link #writeLock}.
+     */
+    private void upsert(Book book) {
+        upsert(book.getBookId(), book.getBookTitle(), book.getBookAuthor(), book.getBookGenre(), book.getBookPrice());
+    }
+
+    /**
+     * Inserts or replaces a row. Appends past a full last segment start a new segment;
+     * other inserts grow their segment and split it once it reaches twice the target size.
+     * Must hold {@link #writeLock}.
+     */
+    private void upsert(long id, String title, String author, String genre, Double price) {
+        State current = state;
+        changeCount++;
+        int authorCode = current.authors().encode(author);
+        int genreCode = current.genres().encode(genre);
+        double priceValue = price == null ? Double.NaN : price;
+        CatalogSegment[] segments = current.segments();
+
+        if (segments.length == 0) {
+            CatalogSegment first = new CatalogSegment(new long[]{id}, new String[]{title}, new int[]{authorCode},
+                    new int[]{genreCode}, new double[]{priceValue});
+            state = new State(new CatalogSegment[]{first}, current.authors(), current.genres(), 1);
+            return;
+        }
+
+        int segmentIndex = segmentFor(segments, id);
+        CatalogSegment segment = segments[segmentIndex];
+        int row = segment.indexOf(id);
+        CatalogSegment[] next;
+        int size = current.size();
+
+        if (row >= 0) {
+            next = segments.clone();
+            next[segmentIndex] = segment.withRow(row, id, title, authorCode, genreCode, priceValue);
+        } else {
+            int insertAt = -row - 1;
+            size++;
+            if (segmentIndex == segments.length - 1 && insertAt == segment.size() && segment.size() >= SEGMENT_SIZE) {
+                next = Arrays.copyOf(segments, segments.length + 1);
+                next[segments.length] = new CatalogSegment(new long[]{id}, new String[]{title},
+                        new int[]{authorCode}, new int[]{genreCode}, new double[]{priceValue});
+            } else {
+                CatalogSegment grown = segment.withInsertedRow(insertAt, id, title, authorCode, genreCode, priceValue);
+                if (grown.size() >= 2 * SEGMENT_SIZE) {
+                    next = new CatalogSegment[segments.length + 1];
+                    System.arraycopy(segments, 0, next, 0, segmentIndex);
+                    next[segmentIndex] = grown.slice(0, SEGMENT_SIZE);
+                    next[segmentIndex + 1] = grown.slice(SEGMENT_SIZE, grown.size());
+                    System.arraycopy(segments, segmentIndex + 1, next, segmentIndex + 2,
+                            segments.length - segmentIndex - 1);
+                } else {
+                    next = segments.clone();
+                    next[segmentIndex] = grown;
+                }
+            }
+        }
+        state = new State(next, current.authors(), current.genres(), size);
+    }
+
+    /**
+     * Removes a row if present. Must hold {@link #writeLock}.
+     */
+    private void delete(long id) {
+        State current = state;
+        CatalogSegment[] segments = current.segments();
+        if (segments.length == 0) {
+            return;
+        }
+        int segmentIndex = segmentFor(segments, id);
+        CatalogSegment segment = segments[segmentIndex];
+        int row = segment.indexOf(id);
+        if (row < 0) {
+            return;
+        }
+        changeCount++;
+
+        CatalogSegment[] next;
+        if (segment.size() == 1) {
+            next = new CatalogSegment[segments.length - 1];
+            System.arraycopy(segments, 0, next, 0, segmentIndex);
+            System.arraycopy(segments, segmentIndex + 1, next, segmentIndex, segments.length - segmentIndex - 1);
+        } else {
+            next = segments.clone();
+            next[segmentIndex] = segment.withoutRow(row);
+        }
+        state = new State(next, current.authors(), current.genres(), current.size() - 1);
+    }
+
+    /**
+     * @return the index of the last segment whose first id is not greater than {@code id}, or 0
+     */
+    private static int segmentFor(CatalogSegment[] segments, long id) {
+        int low = 0;
+        int high = segments.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segments[mid].firstId() <= id) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private static List<Book> scan(State state, CatalogSegment segment, boolean[] genreMask, boolean[] authorMask,
+                                   boolean priceRange, double minPrice, double maxPrice) {
+        List<Book> matches = new ArrayList<>();
+        int[] genreCodes = segment.genreCodes;
+        int[] authorCodes = segment.authorCodes;
+        double[] prices = segment.prices;
+
+        for (int i = 0; i < segment.size(); i++) {
+            if (genreMask != null && !matches(genreMask, genreCodes[i])) {
+                continue;
+            }
+            if (authorMask != null && !matches(authorMask, authorCodes[i])) {
+                continue;
+            }
+            if (priceRange && !(prices[i] >= minPrice && prices[i] <= maxPrice)) {
+                continue;
+            }
+            matches.add(toBook(state, segment, i));
+        }
+        return matches;
+    }
+
+    private static boolean matches(boolean[] mask, int code) {
+        return code >= 0 && code < mask.length && mask[code];
+    }
+
+    private static Book toBook(State state, CatalogSegment segment, int row) {
+        double price = segment.prices[row];
+        return new Book(segment.ids[row], segment.titles[row], state.authors().decode(segment.authorCodes[row]),
+                state.genres().decode(segment.genreCodes[row]), Double.isNaN(price) ? null : price, null);
+    }
+
+    /**
+     * Builds segments from books supplied in ascending id order.
+     */
+    private static final class SegmentBuilder {
+
+        private final StringDictionary authors = new StringDictionary();
+
+        private final StringDictionary genres = new StringDictionary();
+
+        private final List<CatalogSegment> segments = new ArrayList<>();
+
+        private long[] ids = new long[SEGMENT_SIZE];
+
+        private String[] titles = new String[SEGMENT_SIZE];
+
+        private int[] authorCodes = new int[SEGMENT_SIZE];
+
+        private int[] genreCodes = new int[SEGMENT_SIZE];
+
+        private double[] prices = new double[SEGMENT_SIZE];
+
+        private int count;
+
+        private int total;
+
+        void add(Book book) {
+            ids[count] = book.getBookId();
+            titles[count] = book.getBookTitle();
+            authorCodes[count] = authors.encode(book.getBookAuthor());
+            genreCodes[count] = genres.encode(book.getBookGenre());
+            prices[count] = book.getBookPrice() == null ? Double.NaN : book.getBookPrice();
+            count++;
+            total++;
+            if (count == SEGMENT_SIZE) {
+                flush();
+            }
+        }
+
+        State build() {
+            flush();
+            return new State(segments.toArray(new CatalogSegment[0]), authors, genres, total);
+        }
+
+        private void flush() {
+            if (count == 0) {
+                return;
+            }
+            segments.add(new CatalogSegment(ids, titles, authorCodes, genreCodes, prices).slice(0, count));
+            count = 0;
+        }
+    }
+}
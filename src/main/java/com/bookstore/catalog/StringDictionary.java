@@ -0,0 +1,81 @@
+package com.bookstore.catalog;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only dictionary that maps repeated strings (authors, genres) to dense int codes,
+ * so each distinct value is stored once and columns can hold plain {@code int}s.
+ * <p>
+ * Encoding is done by the single catalog writer. Decoding is lock-free: a code is only
+ * published in a segment after its value has been written here.
+ */
+final class StringDictionary {
+
+    /**
+     * Code used for {@code null} values.
+     */
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private volatile String[] values = new String[16];
+
+    private volatile int size;
+
+    /**
+     * Returns the code of a value, adding it if it is new. Only called by the catalog writer.
+     *
+     * @param value the value to encode, may be {@code null}
+     * @return its code, or {@link #NULL_CODE}
+     */
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int next = size;
+        String[] current = values;
+        if (next == current.length) {
+            current = Arrays.copyOf(current, next * 2);
+        }
+        current[next] = value;
+        values = current;
+        codes.put(value, next);
+        size = next + 1;
+        return next;
+    }
+
+    /**
+     * @param code a code returned by {@link #encode(String)}
+     * @return the value for the code, or {@code null} for {@link #NULL_CODE}
+     */
+    String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    /**
+     * Builds a lookup table marking every code whose value equals the target, ignoring case.
+     * Filters then test {@code mask[code]} instead of comparing strings per row.
+     *
+     * @param target the value to match
+     * @return a mask indexed by code
+     */
+    boolean[] matchIgnoreCase(String target) {
+        int count = size;
+        String[] current = values;
+        boolean[] mask = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            mask[i] = current[i].equalsIgnoreCase(target);
+        }
+        return mask;
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bookstore.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many requests of one route group run at once, so that a burst in one group
+ * (admin writes, logins) cannot take every request thread and database connection
+ * from the others. Requests wait up to {@code maxWaitMs} for a slot and are then rejected.
+ * <p>
+ * Publishes {@code bookstore.bulkhead.queue} (time spent waiting for a slot),
+ * {@code bookstore.bulkhead.rejections} and {@code bookstore.bulkhead.in.use},
+ * each tagged with the group name.
+ */
+public class Bulkhead {
+
+    private final String name;
+
+    private final int maxConcurrent;
+
+    private final long maxWaitNanos;
+
+    private final Semaphore permits;
+
+    private final Timer queueTimer;
+
+    private final Counter rejections;
+
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMs, MeterRegistry registry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.permits = new Semaphore(maxConcurrent);
+        this.queueTimer = Timer.builder("bookstore.bulkhead.queue")
+                .description("Time requests waited for a bulkhead slot")
+                .tag("group", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rejections = Counter.builder("bookstore.bulkhead.rejections")
+                .description("Requests rejected because the bulkhead was full")
+                .tag("group", name)
+                .register(registry);
+        Gauge.builder("bookstore.bulkhead.in.use", permits, slots -> maxConcurrent - slots.availablePermits())
+                .description("Requests currently holding a bulkhead slot")
+                .tag("group", name)
+                .register(registry);
+    }
+
+    /**
+     * Takes a slot, waiting up to the configured time.
+     *
+     * @return {@code true} if a slot was taken and must be given back with {@link #release()}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            queueTimer.record(0, TimeUnit.NANOSECONDS);
+            return true;
+        }
+        long started = System.nanoTime();
+        boolean acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        queueTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejections.increment();
+        }
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
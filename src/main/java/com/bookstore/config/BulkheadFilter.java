@@ -0,0 +1,98 @@
+package com.bookstore.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs each request inside the bulkhead of its route group (catalog reads, admin writes,
+ * authentication), as configured under {@code bookstore.bulkhead.groups}. Requests that
+ * cannot get a slot in time are rejected with 503. Placed after the rate limiter so that
+ * rate-limited requests never take a slot.
+ */
+@Component
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private BulkheadProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * One bulkhead per configured group, in declaration order.
+     */
+    private final List<Map.Entry<BulkheadProperties.Group, Bulkhead>> bulkheads = new ArrayList<>();
+
+    /**
+     * Builds a bulkhead for each configured route group.
+     */
+    @PostConstruct
+    public void init() {
+        properties.getGroups().forEach((name, group) -> bulkheads.add(Map.entry(group,
+                new Bulkhead(name, group.getMaxConcurrent(), group.getMaxWaitMs(), meterRegistry))));
+    }
+
+    /**
+     * Takes a slot in the request's bulkhead for the rest of the chain, or rejects the
+     * request with 503 when none frees up in time.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain to continue processing the request.
+     * @throws ServletException if a servlet-specific error occurs.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        Bulkhead bulkhead = properties.isEnabled() ? findBulkhead(request) : null;
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setHeader("Retry-After", "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too busy (" + bulkhead.getName() + "), retry later");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Bulkhead findBulkhead(HttpServletRequest request) {
+        for (Map.Entry<BulkheadProperties.Group, Bulkhead> entry : bulkheads) {
+            if (entry.getKey().matches(request)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
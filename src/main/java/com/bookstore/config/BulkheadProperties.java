@@ -0,0 +1,38 @@
+package com.bookstore.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Concurrency limits per route group, bound from {@code bookstore.bulkhead}.
+ * Groups are checked in declaration order and the first match wins.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookstore.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Group extends RouteGroup {
+
+        /**
+         * How many requests of this group may run at the same time.
+         */
+        private int maxConcurrent = 16;
+
+        /**
+         * How long a request may queue for a free slot before it is rejected.
+         */
+        private long maxWaitMs = 100;
+    }
+}
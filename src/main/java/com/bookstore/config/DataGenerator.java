@@ -0,0 +1,277 @@
+package com.bookstore.config;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookStore;
+import com.bookstore.repository.UserRepository;
+import com.bookstore.service.BookChangeListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds a large synthetic catalog and user base for local load and performance testing.
+ * <p>
+ * Authors follow a Zipf distribution, a few genres dominate the catalog and prices are
+ * log-normal, so the data has the skew of a real store. Books are generated and inserted
+ * in parallel chunks, each with its own deterministic random stream, and written with
+ * JDBC batches. All users share one BCrypt hash computed up front.
+ * <p>
+ * Enabled with {@code bookstore.generator.enabled}. Books are only generated into an empty
+ * catalog and users only if the generated users do not exist yet, so restarting with the
+ * generator enabled does not duplicate data.
+ */
+@Slf4j
+@Component
+@Order(1)
+public class DataGenerator implements CommandLineRunner {
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Ben", "Clara", "David", "Elena", "Felix", "Grace", "Hugo", "Iris", "Jonas",
+            "Karin", "Leo", "Maya", "Nils", "Olga", "Paul", "Quinn", "Rosa", "Sam", "Tara",
+            "Uma", "Victor", "Wendy", "Xavier", "Yara", "Zoe", "Amir", "Bianca", "Carlos", "Dana"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Adler", "Brooks", "Castillo", "Dubois", "Eriksen", "Fischer", "Garcia", "Hale", "Ivanova", "Jensen",
+            "Kowalski", "Lindqvist", "Moreau", "Novak", "Okafor", "Petrov", "Quinlan", "Rossi", "Schmidt", "Tanaka",
+            "Ueda", "Varga", "Weber", "Xu", "Yilmaz", "Zimmermann", "Bauer", "Costa", "Horvat", "Silva"
+    };
+
+    private static final String[] GENRES = {
+            "Fiction", "Mystery", "Romance", "Science Fiction", "Fantasy", "Thriller", "Biography", "History",
+            "Self-Help", "Children", "Poetry", "Travel", "Cooking", "Philosophy", "Science", "Art", "Religion",
+            "Business", "Health", "Humor"
+    };
+
+    /**
+     * Relative weights of {@link #GENRES}: a handful of genres hold most of the catalog.
+     */
+    private static final double[] GENRE_WEIGHTS = {
+            28, 14, 13, 10, 9, 7, 4, 3, 2, 2, 1, 1, 1, 0.8, 0.8, 0.6, 0.5, 0.5, 0.4, 0.4
+    };
+
+    private static final String[] TITLE_ADJECTIVES = {
+            "Silent", "Hidden", "Broken", "Golden", "Last", "Distant", "Burning", "Forgotten", "Crimson", "Endless",
+            "Quiet", "Wild", "Secret", "Lost", "Northern", "Hollow", "Bright", "Frozen", "Restless", "Gentle"
+    };
+
+    private static final String[] TITLE_NOUNS = {
+            "River", "Garden", "Kingdom", "Letter", "Shadow", "Harbor", "Empire", "Orchard", "Mirror", "Station",
+            "Voyage", "Island", "Promise", "Winter", "Forest", "Lighthouse", "Archive", "Storm", "Compass", "Bridge"
+    };
+
+    @Autowired
+    private BookStore bookStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private List<BookChangeListener> changeListeners;
+
+    @Value("${bookstore.generator.enabled:false}")
+    private boolean enabled;
+
+    @Value("${bookstore.generator.books:1000000}")
+    private int books;
+
+    @Value("${bookstore.generator.users:5000}")
+    private int users;
+
+    @Value("${bookstore.generator.authors:20000}")
+    private int authors;
+
+    /**
+     * Zipf exponent of the author distribution; around 1 means the top author writes
+     * about a tenth of all books while most authors have only a few.
+     */
+    @Value("${bookstore.generator.author-skew:1.07}")
+    private double authorSkew;
+
+    @Value("${bookstore.generator.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${bookstore.generator.threads:4}")
+    private int threads;
+
+    @Value("${bookstore.generator.seed:42}")
+    private long seed;
+
+    /**
+     * Password of every generated user.
+     */
+    @Value("${bookstore.generator.user-password:password}")
+    private String userPassword;
+
+    /**
+     * Generates the configured books and users if the generator is enabled.
+     *
+     * @param args command-line arguments
+     */
+    @Override
+    public void run(String... args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+        generateUsers();
+        generateBooks();
+    }
+
+    /**
+     * Inserts {@code users} users named {@code reader-000001} and up, all with the same password hash.
+     */
+    private void generateUsers() {
+        if (users <= 0 || userRepository.findByUserName(userName(1)) != null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        String passwordHash = passwordEncoder.encode(userPassword);
+        List<Integer> numbers = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            numbers.add(i);
+        }
+        jdbcTemplate.batchUpdate("insert into users (user_name, user_password, user_role) values (?, ?, ?)",
+                numbers, batchSize, (ps, number) -> {
+                    ps.setString(1, userName(number));
+                    ps.setString(2, passwordHash);
+                    ps.setString(3, "ROLE_USER");
+                });
+        log.info("Generated {} users in {} ms", users, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Generates and inserts {@code books} books in parallel chunks of {@code batch-size},
+     * then tells the change listeners that the catalog was replaced.
+     */
+    private void generateBooks() throws InterruptedException, ExecutionException {
+        if (books <= 0 || !bookStore.findAfter(Long.MIN_VALUE, 1).isEmpty()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        double[] authorCdf = zipfCdf(authors, authorSkew);
+        double[] genreCdf = cumulative(GENRE_WEIGHTS);
+        int chunks = (books + batchSize - 1) / batchSize;
+        AtomicLong inserted = new AtomicLong();
+        long logEvery = Math.max(batchSize, books / 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int first = chunk * batchSize;
+                int count = Math.min(batchSize, books - first);
+                SplittableRandom random = new SplittableRandom(seed + chunk);
+                futures.add(executor.submit(() -> {
+                    List<Book> batch = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        batch.add(generateBook(random, first + i, authorCdf, genreCdf));
+                    }
+                    bookStore.insertAll(batch);
+                    long total = inserted.addAndGet(count);
+                    if (total / logEvery != (total - count) / logEvery) {
+                        log.info("Generated {} of {} books", total, books);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        log.info("Generated {} books in {} ms", books, System.currentTimeMillis() - started);
+        for (BookChangeListener listener : changeListeners) {
+            listener.catalogChanged();
+        }
+    }
+
+    private static Book generateBook(SplittableRandom random, int index, double[] authorCdf, double[] genreCdf) {
+        Book book = new Book();
+        book.setBookTitle("The " + TITLE_ADJECTIVES[random.nextInt(TITLE_ADJECTIVES.length)] + " "
+                + TITLE_NOUNS[random.nextInt(TITLE_NOUNS.length)] + ", Vol. " + (index + 1));
+        book.setBookAuthor(authorName(sample(authorCdf, random.nextDouble())));
+        book.setBookGenre(GENRES[sample(genreCdf, random.nextDouble())]);
+        book.setBookPrice(price(random));
+        return book;
+    }
+
+    /**
+     * Log-normal price around a median of 15, priced at .99 and capped at 999.99,
+     * so most books are cheap and a long tail is expensive.
+     */
+    private static double price(SplittableRandom random) {
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                * Math.cos(2 * Math.PI * random.nextDouble());
+        double price = Math.exp(Math.log(15) + 0.75 * gaussian);
+        return Math.min(999, Math.floor(price)) + 0.99;
+    }
+
+    /**
+     * @return a stable, readable name for the author of the given popularity rank
+     */
+    private static String authorName(int rank) {
+        int combinations = FIRST_NAMES.length * LAST_NAMES.length;
+        String name = FIRST_NAMES[rank % FIRST_NAMES.length] + " "
+                + LAST_NAMES[rank / FIRST_NAMES.length % LAST_NAMES.length];
+        return rank < combinations ? name : name + " " + (rank / combinations + 1);
+    }
+
+    private static String userName(int number) {
+        return "reader-" + String.format("%06d", number);
+    }
+
+    /**
+     * @return the cumulative distribution of ranks {@code 0..n-1} with weight {@code 1 / (rank + 1)^s}
+     */
+    private static double[] zipfCdf(int n, double s) {
+        double[] weights = new double[Math.max(1, n)];
+        for (int rank = 0; rank < weights.length; rank++) {
+            weights[rank] = 1 / Math.pow(rank + 1, s);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    /**
+     * @return the first index whose cumulative probability exceeds {@code u}
+     */
+    private static int sample(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(index, cdf.length - 1);
+    }
+}
@@ -5,14 +5,17 @@ import com.bookstore.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * This class initializes default users and roles in the database
  * when the application starts, if no users are found.
+ * Runs before {@link DataGenerator}.
  */
 @Configuration
+@Order(0)
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
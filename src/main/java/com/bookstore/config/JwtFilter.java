@@ -1,7 +1,11 @@
 package com.bookstore.config;
 
+import com.bookstore.logging.EventLog;
 import com.bookstore.service.JWTService;
 import com.bookstore.service.MyUserDetailsService;
+import com.bookstore.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +31,18 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private JWTService jwtService;
 
+    /**
+     * Service used to reject tokens that have been revoked, e.g. by logging out.
+     */
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    /**
+     * Records rejected tokens.
+     */
+    @Autowired
+    private EventLog eventLog;
+
     /**
      * The Spring application context. It is used to programmatically retrieve
      * beans, such as the UserDetailsService, when needed.
@@ -38,6 +54,8 @@ public class JwtFilter extends OncePerRequestFilter {
      * Core method of the filter that performs the authentication logic.
      * It extracts the JWT token from the request header, validates it, and
      * sets the user's authentication in the SecurityContext if successful.
+     * The token is parsed and its signature verified once; a token that fails
+     * verification or has been revoked leaves the request unauthenticated.
      *
      * @param request The HTTP request.
      * @param response The HTTP response.
@@ -49,19 +67,27 @@ public class JwtFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
+        Claims claims = null;
         String username = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtService.extractUserName(token);
+            try {
+                claims = jwtService.extractAllClaims(authHeader.substring(7));
+                if (!revocationService.isRevoked(claims.getId())) {
+                    username = claims.getSubject();
+                } else {
+                    eventLog.authFailure(claims.getSubject(), "revoked token", request.getRemoteAddr());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                eventLog.authFailure(null, e.getClass().getSimpleName(), request.getRemoteAddr());
+            }
         }
 
         if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             UserDetails userDetails = context.getBean(MyUserDetailsService.class).loadUserByUsername(username);
 
-            if(jwtService.validateToken(token, userDetails)){
+            if(jwtService.validateToken(claims, userDetails)){
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,49 @@
+package com.bookstore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT signing keys and token lifetimes, bound from {@code bookstore.jwt}.
+ * <p>
+ * Keys can be listed inline under {@code keys} and/or in a key file, a properties file
+ * with one {@code key.<kid>=<base64 secret>} line per key and an optional
+ * {@code active=<kid>} line. Entries from the file win. Every node must be given the
+ * same keys so that any node can verify any token.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookstore.jwt")
+public class JwtProperties {
+
+    /**
+     * Key id used to sign new tokens. Defaults to the only key when exactly one is configured.
+     */
+    private String activeKid;
+
+    /**
+     * Inline keys: key id to Base64-encoded HMAC secret of at least 256 bits.
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * Optional path to a key file, re-read when it changes.
+     */
+    private String keyFile;
+
+    private long reloadIntervalMs = 60_000;
+
+    /**
+     * Lifetime of access tokens.
+     */
+    private long accessTokenTtlMs = 900_000;
+
+    /**
+     * Lifetime of refresh tokens; each refresh issues a new one with a fresh lifetime.
+     */
+    private long refreshTokenTtlMs = 1_209_600_000;
+}
@@ -0,0 +1,110 @@
+package com.bookstore.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies per-client token bucket limits to the route groups configured under
+ * {@code bookstore.rate-limit.groups}. Runs right after {@link JwtFilter}, so
+ * authenticated requests are keyed by username and anonymous ones by client IP.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    /**
+     * One limiter per configured group, in declaration order.
+     */
+    private final List<Map.Entry<RateLimitProperties.Group, TokenBucketRateLimiter>> limiters = new ArrayList<>();
+
+    /**
+     * Builds a limiter for each configured route group.
+     */
+    @PostConstruct
+    public void init() {
+        for (RateLimitProperties.Group group : properties.getGroups().values()) {
+            limiters.add(Map.entry(group, new TokenBucketRateLimiter(
+                    group.getPermitsPerSecond(), group.getBurst(), properties.getIdleEvictionMs())));
+        }
+    }
+
+    /**
+     * Checks the client's bucket for the request's route group and rejects the
+     * request with 429 when it is empty.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain to continue processing the request.
+     * @throws ServletException if a servlet-specific error occurs.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        TokenBucketRateLimiter limiter = properties.isEnabled() ? findLimiter(request) : null;
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TokenBucketRateLimiter.Decision decision = limiter.tryAcquire(clientKey(request));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(limiter.getBurst()));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
+
+        if (!decision.allowed()) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999L));
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many requests");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Drops idle buckets so that one-off clients do not accumulate.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.rate-limit.idle-eviction-ms:300000}")
+    public void evictIdleBuckets() {
+        for (Map.Entry<RateLimitProperties.Group, TokenBucketRateLimiter> entry : limiters) {
+            entry.getValue().evictIdle();
+        }
+    }
+
+    private TokenBucketRateLimiter findLimiter(HttpServletRequest request) {
+        for (Map.Entry<RateLimitProperties.Group, TokenBucketRateLimiter> entry : limiters) {
+            if (entry.getKey().matches(request)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
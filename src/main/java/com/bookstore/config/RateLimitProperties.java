@@ -0,0 +1,43 @@
+package com.bookstore.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate limits per route group, bound from {@code bookstore.rate-limit}.
+ * Groups are checked in declaration order and the first match wins.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookstore.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Buckets that have been full and untouched for this long are dropped.
+     */
+    private long idleEvictionMs = 300_000;
+
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Group extends RouteGroup {
+
+        /**
+         * Sustained rate each client may use.
+         */
+        private double permitsPerSecond = 50;
+
+        /**
+         * How many requests a client may send at once after being idle.
+         */
+        private int burst = 100;
+    }
+}
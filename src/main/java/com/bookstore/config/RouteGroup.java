@@ -0,0 +1,48 @@
+package com.bookstore.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Data;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A named set of routes, matched by HTTP method and Ant-style path pattern.
+ * Used to give groups of endpoints (catalog reads, admin writes, authentication)
+ * their own limits in the request filters.
+ */
+@Data
+public class RouteGroup {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * HTTP methods covered by this group. Empty means every method.
+     */
+    private List<String> methods = new ArrayList<>();
+
+    /**
+     * Ant-style path patterns covered by this group, e.g. {@code /api/books/**}.
+     */
+    private List<String> paths = new ArrayList<>();
+
+    /**
+     * Checks whether the request belongs to this group.
+     *
+     * @param request The HTTP request.
+     * @return {@code true} if both the method and the path match.
+     */
+    public boolean matches(HttpServletRequest request) {
+        if (!methods.isEmpty() && !methods.contains(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : paths) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
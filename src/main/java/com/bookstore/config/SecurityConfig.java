@@ -1,5 +1,6 @@
 package com.bookstore.config;
 
+import com.bookstore.logging.AccessLogFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,6 +30,15 @@ public class SecurityConfig {
     @Autowired
     private JwtFilter jwtFilter;
 
+    @Autowired
+    private AccessLogFilter accessLogFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private BulkheadFilter bulkheadFilter;
+
     /**
      * Creates a BCrypt password encoder bean.
      * This encoder is used to securely hash and verify user passwords.
@@ -45,14 +55,18 @@ public class SecurityConfig {
      */
     private final String[] OPENED_RESOURCES = {
             "/api/users/register",
-            "/api/users/login"
+            "/api/users/login",
+            "/api/users/refresh",
+            "/error",
+            "/actuator/health/**"
     };
 
     /**
      * Configures the security filter chain for the application.
      * This method disables CSRF, defines public endpoints, enforces authentication
      * for all other requests, and configures stateless session management. It also
-     * adds a custom JWT filter to the chain for token-based authentication.
+     * adds a custom JWT filter to the chain for token-based authentication, followed
+     * by the per-client rate limiter and the per-route-group bulkheads.
      *
      * @param http The HttpSecurity object to configure.
      * @return The configured SecurityFilterChain.
@@ -71,6 +85,9 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(accessLogFilter, JwtFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtFilter.class)
+                .addFilterAfter(bulkheadFilter, RateLimitFilter.class)
                 .build();
 
     }
@@ -0,0 +1,48 @@
+package com.bookstore.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Book storage sharding, bound from {@code bookstore.sharding}.
+ * Books are placed on a shard by a hash of their id, so the shard list must not be
+ * reordered or resized once it holds data.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "bookstore.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Distinguishes the ids generated by this instance from those of other instances (0-1023).
+     */
+    private int workerId = 0;
+
+    /**
+     * How long a scatter-gather read waits for each shard before failing.
+     */
+    private long shardTimeoutMs = 2000;
+
+    /**
+     * Connections per shard.
+     */
+    private int maxPoolSize = 8;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+    }
+}
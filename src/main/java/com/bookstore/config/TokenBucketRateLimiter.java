@@ -0,0 +1,98 @@
+package com.bookstore.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket keyed by client.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the "theoretical arrival time"
+ * of the next request (the GCRA formulation of a token bucket). Refill is implicit:
+ * the stored time simply falls behind the clock, so there is no refill task and a
+ * request costs one read and one CAS. Buckets that have been full for longer than
+ * the idle period are removed by {@link #evictIdle()}.
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * Outcome of a single acquire attempt.
+     *
+     * @param allowed      whether the request may proceed
+     * @param remaining    requests still available right now
+     * @param retryAfterNanos how long to wait before retrying, when rejected
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final long idleNanos;
+
+    private final int burst;
+
+    private final long origin = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst            bucket capacity
+     * @param idleEvictionMs   how long a full, unused bucket is kept
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, long idleEvictionMs) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.burst = burst;
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictionMs);
+    }
+
+    /**
+     * Takes one token from the bucket of the given key.
+     *
+     * @param key the client key, e.g. a username or IP address
+     * @return the decision, including how many tokens are left
+     */
+    public Decision tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + emissionIntervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return new Decision(false, 0, excess);
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return new Decision(true, -excess / emissionIntervalNanos, 0);
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have been full and unused for longer than the idle period.
+     * A request racing with the removal gets a fresh bucket, which only ever errs on
+     * the side of allowing it.
+     */
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - origin - idleNanos;
+        buckets.values().removeIf(bucket -> bucket.get() < cutoff);
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bookstore.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/warmup}) reporting the progress of {@link WarmupRunner}.
+ */
+@Component
+@Endpoint(id = "warmup")
+public class WarmupEndpoint {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return warmupRunner.progress();
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookstore.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until warm-up has finished. Included in the readiness
+ * group, so instances only receive traffic once they are warm.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Override
+    public Health health() {
+        WarmupRunner.Status status = warmupRunner.getStatus();
+        Health.Builder builder = status == WarmupRunner.Status.COMPLETE || status == WarmupRunner.Status.SKIPPED
+                ? Health.up()
+                : Health.outOfService();
+        return builder.withDetails(warmupRunner.progress()).build();
+    }
+}
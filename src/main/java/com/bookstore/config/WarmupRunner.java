@@ -0,0 +1,266 @@
+package com.bookstore.config;
+
+import com.bookstore.cache.CatalogVersion;
+import com.bookstore.cache.ResponseByteCache;
+import com.bookstore.catalog.ColumnarCatalog;
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.repository.BookStore;
+import com.bookstore.service.BookService;
+import com.bookstore.service.JWTService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the application up before it reports ready.
+ * <p>
+ * Runs as the last startup runner, so the readiness probe stays {@code OUT_OF_SERVICE}
+ * until it has finished: it opens the connection pool, loads the most recent books into
+ * the response cache, and then exercises the hot paths (JWT sign/verify, JSON encoding of
+ * book lists, repository finders) so they are JIT-compiled before real traffic arrives.
+ * Everything is bounded by {@code max-duration-ms} and the iteration budgets, and failures
+ * are logged rather than preventing startup. Progress is reported by the {@code warmup}
+ * actuator endpoint and health indicator.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETE,
+        SKIPPED
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookStore bookStore;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JWTService jwtService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResponseByteCache responseCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ColumnarCatalog columnarCatalog;
+
+    @Value("${bookstore.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bookstore.warmup.max-duration-ms:30000}")
+    private long maxDurationMs;
+
+    /**
+     * Iterations of the in-memory hot paths (JWT, JSON).
+     */
+    @Value("${bookstore.warmup.iterations:5000}")
+    private int iterations;
+
+    /**
+     * Iterations of the repository finders, which each cost a database round-trip.
+     */
+    @Value("${bookstore.warmup.query-iterations:200}")
+    private int queryIterations;
+
+    /**
+     * How many of the most recent books to preload.
+     */
+    @Value("${bookstore.warmup.preload-books:1000}")
+    private int preloadBooks;
+
+    private volatile Status status = Status.PENDING;
+
+    private volatile String phase = "";
+
+    private volatile long startedAt;
+
+    private volatile long finishedAt;
+
+    private final AtomicLong completedIterations = new AtomicLong();
+
+    private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+
+    /**
+     * Runs the warm-up phases in order until done or out of time.
+     *
+     * @param args application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            status = Status.SKIPPED;
+            return;
+        }
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+        long deadline = startedAt + maxDurationMs;
+
+        runPhase("connections", this::openConnections);
+        List<Book> books = new ArrayList<>();
+        runPhase("preload", () -> books.addAll(preloadBooks()));
+        runPhase("jwt", () -> loop(deadline, iterations, this::warmJwt));
+        runPhase("json", () -> loop(deadline, iterations, () -> warmJson(books)));
+        runPhase("queries", () -> loop(deadline, queryIterations, () -> warmQueries(books)));
+
+        finishedAt = System.currentTimeMillis();
+        status = Status.COMPLETE;
+        phase = "";
+        log.info("Warm-up finished in {} ms: {}", finishedAt - startedAt, phaseMillis);
+    }
+
+    /**
+     * @return the current warm-up status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return a snapshot of the progress, for the actuator endpoint
+     */
+    public Map<String, Object> progress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("status", status);
+        progress.put("phase", phase);
+        progress.put("iterations", completedIterations.get());
+        long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+        progress.put("elapsedMs", startedAt > 0 ? end - startedAt : 0);
+        synchronized (phaseMillis) {
+            progress.put("phaseMillis", new LinkedHashMap<>(phaseMillis));
+        }
+        return progress;
+    }
+
+    private void runPhase(String name, Runnable work) {
+        phase = name;
+        long started = System.currentTimeMillis();
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            log.warn("Warm-up phase '{}' failed: {}", name, e.getMessage());
+        }
+        synchronized (phaseMillis) {
+            phaseMillis.put(name, System.currentTimeMillis() - started);
+        }
+    }
+
+    private void loop(long deadline, int budget, Runnable iteration) {
+        for (int i = 0; i < budget && System.currentTimeMillis() < deadline; i++) {
+            iteration.run();
+            completedIterations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Holds as many connections as the pool allows at once, so they are all opened now.
+     */
+    private void openConnections() {
+        int count = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 1;
+        List<Connection> connections = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            log.warn("Warm-up opened {} of {} connections: {}", connections.size(), count, e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // returning to the pool; nothing to do
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the most recent books and puts their encoded responses into the cache.
+     * The catalog version is taken before the load: a book written since then may have
+     * been read before the write, so it is left for the first request to cache.
+     */
+    private List<Book> preloadBooks() {
+        long loadedAt = catalogVersion.current();
+        List<Book> books = bookStore.findLatest(preloadBooks);
+        for (Book book : books) {
+            long version = catalogVersion.ofBook(book.getBookId());
+            if (version <= loadedAt) {
+                responseCache.preload("book:" + book.getBookId(), version, () -> book);
+            }
+        }
+        if (books.size() < preloadBooks) {
+            responseCache.preload("booklist", catalogVersion.current(), bookService::fetchBookList);
+        }
+        return books;
+    }
+
+    private void warmJwt() {
+        String token = jwtService.generateToken("warmup");
+        jwtService.extractAllClaims(token);
+    }
+
+    private void warmJson(List<Book> books) {
+        try {
+            objectMapper.writeValueAsBytes(books.subList(0, Math.min(100, books.size())));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs an id lookup and a filter read for one of the preloaded books. The filter asks
+     * for that book's author at exactly its price, so it returns a handful of rows however
+     * large the catalog or its genres are. It goes through the in-memory catalog when that
+     * is loaded; otherwise it is a one-row keyset page starting at the book, which the
+     * database answers from the primary key index instead of scanning the table. Title
+     * lookups are not warmed, since their case-insensitive match always scans.
+     */
+    private void warmQueries(List<Book> books) {
+        if (books.isEmpty()) {
+            bookStore.findById(0L);
+            return;
+        }
+        Book book = books.get((int) (completedIterations.get() % books.size()));
+        bookStore.findById(book.getBookId());
+        if (book.getBookAuthor() == null || book.getBookPrice() == null) {
+            return;
+        }
+        BookFilter filter = new BookFilter(null, book.getBookAuthor(), book.getBookPrice(), book.getBookPrice());
+        if (columnarCatalog.isReady()) {
+            bookService.filterBooks(filter);
+        } else {
+            bookStore.findMatchingIds(filter, book.getBookId() - 1, 1);
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.bookstore.controller;
 
+import com.bookstore.cache.CatalogVersion;
+import com.bookstore.cache.ResponseByteCache;
 import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.model.BulkBookRequest;
+import com.bookstore.model.BulkBookResult;
+import com.bookstore.model.IngestTicket;
+import com.bookstore.model.PriceStatisticsReport;
+import com.bookstore.model.PriceSummary;
+import com.bookstore.service.BookBulkService;
+import com.bookstore.service.BookIngestService;
 import com.bookstore.service.BookService;
+import com.bookstore.stats.PriceStatistics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -23,29 +39,52 @@ public class BookController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookIngestService bookIngestService;
+
+    @Autowired
+    private BookBulkService bookBulkService;
+
+    @Autowired
+    private ResponseByteCache responseCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private PriceStatistics priceStatistics;
+
     /**
      * Gets all books.
      * Accessible only to authorized users.
+     * The encoded list is cached until the catalog changes.
      *
-     * @return List containing a list of Books.
+     * @param request the HTTP request
+     * @param response the HTTP response the JSON list is written to
+     * @throws IOException if writing the response fails
      */
     @GetMapping("/booklist")
     @PreAuthorize("isAuthenticated()")
-    public List<Book> fetchBookList() {
-        return bookService.fetchBookList();
+    public void fetchBookList(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseCache.write("booklist", catalogVersion.current(), bookService::fetchBookList, request, response);
     }
 
     /**
      * Gets a book by its ID.
      * Accessible only to authorized users.
+     * The encoded book is cached until the book changes.
      *
      * @param bookId the ID of the book
-     * @return The Book containing the Book if found.
+     * @param request the HTTP request
+     * @param response the HTTP response the JSON book is written to
+     * @throws IOException if writing the response fails
      */
     @GetMapping("/booklist/{id}")
     @PreAuthorize("isAuthenticated()")
-    public Book fetchBookByBookId(@PathVariable("id") Long bookId) {
-        return bookService.fetchBookByBookId(bookId);
+    public void fetchBookByBookId(@PathVariable("id") Long bookId,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        responseCache.write("book:" + bookId, catalogVersion.ofBook(bookId),
+                () -> bookService.fetchBookByBookId(bookId), request, response);
     }
 
     /**
@@ -62,6 +101,35 @@ public class BookController {
         return "Book saved successfully";
     }
 
+    /**
+     * Accepts a new book for asynchronous, batched writing.
+     * Accessible only to users with the ADMIN role.
+     *
+     * @param book the Book containing book information
+     * @return 202 with the ingest ticket, or 201 if asynchronous ingest is disabled
+     * and the book was saved straight away.
+     */
+    @PostMapping("/ingest")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<IngestTicket> ingestBook(@Valid @RequestBody Book book) {
+        IngestTicket ticket = bookIngestService.submit(book);
+        HttpStatus status = ticket.isDone() ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(ticket);
+    }
+
+    /**
+     * Gets the state of an ingest ticket.
+     * Accessible only to users with the ADMIN role.
+     *
+     * @param ticketId the ID returned by the ingest endpoint
+     * @return The ticket, or 404 if it is unknown or has expired.
+     */
+    @GetMapping("/ingest/{ticketId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<IngestTicket> fetchIngestTicket(@PathVariable("ticketId") Long ticketId) {
+        return ResponseEntity.of(bookIngestService.findTicket(ticketId));
+    }
+
     /**
      * Deletes a book by its ID.
      * Accessible only to users with the ADMIN role.
@@ -92,6 +160,20 @@ public class BookController {
         return "Book updated successfully";
     }
 
+    /**
+     * Applies one change to every book matching a filter or an id list, in chunked
+     * set-based statements. Percentage price changes are rounded to cents.
+     * Accessible only to users with the ADMIN role.
+     *
+     * @param request the filter and the change to apply
+     * @return The number of matched and changed books, or 400 if the request has no criteria.
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public BulkBookResult applyBulkChange(@RequestBody BulkBookRequest request) {
+        return bookBulkService.apply(request);
+    }
+
     /**
      * Searches for books based on title.
      * Accessible only to authorized users.
@@ -131,5 +213,61 @@ public class BookController {
         return bookService.fetchBookByBookGenre(bookGenre);
     }
 
-}
+    /**
+     * Filters books by genre, author and price range.
+     * Accessible only to authorized users.
+     *
+     * @param bookGenre the genre to match (optional)
+     * @param bookAuthor the author to match (optional)
+     * @param minPrice the lowest price to include (optional)
+     * @param maxPrice the highest price to include (optional)
+     * @return List containing the matching Books.
+     */
+    @GetMapping("/filter")
+    @PreAuthorize("isAuthenticated()")
+    public List<Book> filterBooks(@RequestParam(value = "genre", required = false) String bookGenre,
+                                  @RequestParam(value = "author", required = false) String bookAuthor,
+                                  @RequestParam(value = "minPrice", required = false) Double minPrice,
+                                  @RequestParam(value = "maxPrice", required = false) Double maxPrice) {
+        return bookService.filterBooks(new BookFilter(bookGenre, bookAuthor, minPrice, maxPrice));
+    }
+
+    /**
+     * Gets the price statistics of every genre.
+     * Accessible only to authorized users.
+     *
+     * @return count, min, max and average price per genre.
+     */
+    @GetMapping("/stats/genres")
+    @PreAuthorize("isAuthenticated()")
+    public List<PriceSummary> fetchGenrePriceStatistics() {
+        return priceStatistics.byGenre();
+    }
 
+    /**
+     * Gets the price statistics of every author.
+     * Accessible only to authorized users.
+     *
+     * @return count, min, max and average price per author.
+     */
+    @GetMapping("/stats/authors")
+    @PreAuthorize("isAuthenticated()")
+    public List<PriceSummary> fetchAuthorPriceStatistics() {
+        return priceStatistics.byAuthor();
+    }
+
+    /**
+     * Recomputes the price statistics from the whole catalog and compares them with the maintained ones.
+     * Accessible only to users with the ADMIN role.
+     *
+     * @param repair whether to replace the maintained statistics with the recomputed ones
+     * @return The groups that differed.
+     */
+    @PostMapping("/stats/verify")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public PriceStatisticsReport verifyPriceStatistics(
+            @RequestParam(value = "repair", defaultValue = "false") boolean repair) {
+        return priceStatistics.verify(repair);
+    }
+
+}
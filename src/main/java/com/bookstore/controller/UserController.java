@@ -1,11 +1,15 @@
 package com.bookstore.controller;
 
+import com.bookstore.model.RefreshRequest;
+import com.bookstore.model.TokenResponse;
 import com.bookstore.model.Users;
+import com.bookstore.service.InvalidAccessTokenException;
 import com.bookstore.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,6 +21,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     @Autowired
     private UserService userService;
 
@@ -36,10 +42,42 @@ public class UserController {
      * The endpoint accepts user credentials (username and password) and verifies them.
      *
      * @param user Users object containing user credentials for login.
-     * @return String containing the verification result: a JWT token and a message.
+     * @return TokenResponse containing a short-lived access token and a refresh token.
      */
     @PostMapping("/login")
-    public String login(@RequestBody Users user) {
+    public TokenResponse login(@RequestBody Users user) {
         return userService.verify(user);
     }
+
+    /**
+     * Exchanges a refresh token for a new access token and refresh token, without a password check.
+     *
+     * @param request RefreshRequest containing the current refresh token.
+     * @return TokenResponse containing the new tokens.
+     */
+    @PostMapping("/refresh")
+    public TokenResponse refresh(@RequestBody RefreshRequest request) {
+        return userService.refresh(request.refreshToken());
+    }
+
+    /**
+     * Logs the current user out by revoking the token used for this request,
+     * and the refresh token if one is sent in the body. A client that authenticated
+     * without a bearer token can still revoke its refresh token this way.
+     *
+     * @param authHeader the Authorization header carrying the bearer token.
+     * @param request optional RefreshRequest with the refresh token to revoke.
+     * @return String containing a confirmation message, or 401 if there is neither a bearer nor a refresh token.
+     */
+    @PostMapping("/logout")
+    public String logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                         @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authHeader != null && authHeader.startsWith(BEARER_PREFIX)
+                ? authHeader.substring(BEARER_PREFIX.length()) : null;
+        String refreshToken = request == null ? null : request.refreshToken();
+        if (accessToken == null && (refreshToken == null || refreshToken.isBlank())) {
+            throw new InvalidAccessTokenException("Logout needs a bearer access token or a refresh token to revoke");
+        }
+        return userService.logout(accessToken, refreshToken);
+    }
 }
@@ -1,5 +1,6 @@
 package com.bookstore.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Table(indexes = @Index(columnList = "bookUpdatedAt"))
 public class Book {
 
     @Id
@@ -19,4 +21,20 @@ public class Book {
     private String bookGenre;
     private Double bookPrice;
 
+    /**
+     * When the book was last written, in epoch milliseconds. Used to catch up
+     * on changes made after a catalog snapshot was taken.
+     */
+    @JsonIgnore
+    private Long bookUpdatedAt;
+
+    /**
+     * Stamps the write time on every insert and update.
+     */
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        bookUpdatedAt = System.currentTimeMillis();
+    }
+
 }
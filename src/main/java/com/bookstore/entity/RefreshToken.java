@@ -0,0 +1,35 @@
+package com.bookstore.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A refresh token issued to a user. Only a SHA-256 hash of the token is stored.
+ * Tokens rotated from the same login share a family id, so that reuse of an
+ * already rotated token can revoke the whole family.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(columnList = "familyId"),
+        @Index(columnList = "expiresAt")
+})
+public class RefreshToken {
+
+    @Id
+    private String tokenHash;
+    private String familyId;
+    private String userName;
+    private Instant expiresAt;
+    private boolean used;
+
+}
@@ -0,0 +1,32 @@
+package com.bookstore.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A revoked JWT, identified by its {@code jti} claim. Rows are only needed until the
+ * token would have expired anyway and are purged after that.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(columnList = "revokedAt"),
+        @Index(columnList = "expiresAt")
+})
+public class RevokedToken {
+
+    @Id
+    private String jti;
+    private Instant expiresAt;
+    private Instant revokedAt;
+
+}
@@ -0,0 +1,51 @@
+package com.bookstore.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Writes one access log event per request. Runs in the security chain before the
+ * JWT filter so that rate limited, rejected and unauthorized requests are recorded
+ * too, and reads the principal once the rest of the chain has authenticated it.
+ */
+@Component
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private EventLog eventLog;
+
+    /**
+     * Times the rest of the chain and publishes a request event when it returns.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain to continue processing the request.
+     * @throws ServletException if a servlet-specific error occurs.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        int status = 500;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            String principal = authentication != null && !(authentication instanceof AnonymousAuthenticationToken)
+                    ? authentication.getName() : null;
+            eventLog.request(request.getMethod(), request.getRequestURI(), status,
+                    (System.nanoTime() - start) / 1000, principal, request.getRemoteAddr());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bookstore.logging;
+
+import com.bookstore.entity.Book;
+import com.bookstore.service.BookChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a catalog write event for every committed book change. Writes made
+ * outside a request, such as batched ingest, are attributed to {@code system}.
+ */
+@Component
+public class CatalogWriteLogger implements BookChangeListener {
+
+    @Autowired
+    private EventLog eventLog;
+
+    @Override
+    public void bookSaved(Book book) {
+        publish("create", book);
+    }
+
+    @Override
+    public void bookUpdated(Book previous, Book current) {
+        publish("update", current);
+    }
+
+    @Override
+    public void bookDeleted(Book book) {
+        publish("delete", book);
+    }
+
+    @Override
+    public void catalogChanged() {
+        eventLog.catalogWrite("bulk", 0, currentUser());
+    }
+
+    private void publish(String operation, Book book) {
+        eventLog.catalogWrite(operation, book.getBookId() == null ? 0 : book.getBookId(), currentUser());
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "system";
+    }
+}
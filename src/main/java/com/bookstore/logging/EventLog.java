@@ -0,0 +1,313 @@
+package com.bookstore.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous structured event log for requests, authentication failures and catalog writes.
+ * <p>
+ * Request threads only claim a pre-allocated slot in a bounded lock-free ring buffer and copy
+ * a few references and numbers into it; they never format, allocate log records or block.
+ * A single background thread drains the ring, renders each event as one JSON line and hands
+ * it to the {@code bookstore.events} logger. When the ring is full the event is dropped and
+ * counted; the count is reported as a {@code dropped} event and as the
+ * {@code bookstore.events.dropped} metric.
+ */
+@Component
+public class EventLog {
+
+    private static final Logger EVENTS = LoggerFactory.getLogger("bookstore.events");
+
+    public enum Type {
+        REQUEST,
+        AUTH_FAILURE,
+        CATALOG_WRITE
+    }
+
+    /**
+     * A reusable ring slot. Field meaning depends on the event type.
+     */
+    private static final class Slot {
+        Type type;
+        long timestamp;
+        String text1;
+        String text2;
+        String text3;
+        String text4;
+        long number1;
+        long number2;
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bookstore.event-log.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Ring size; rounded up to a power of two.
+     */
+    @Value("${bookstore.event-log.capacity:8192}")
+    private int capacity;
+
+    private Slot[] slots;
+
+    /**
+     * Per-slot sequence numbers coordinating producers and the consumer.
+     */
+    private AtomicLongArray sequences;
+
+    private int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position the appender reads, i.e. the number of events taken off the ring.
+     * Written only by the appender; volatile so {@link #writtenCount()} can read it.
+     */
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private long droppedReported;
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private Thread appender;
+
+    private volatile boolean running;
+
+    /**
+     * Allocates the ring and starts the appender thread.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new Slot[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+        FunctionCounter.builder("bookstore.events.dropped", dropped, LongAdder::sum)
+                .description("Events dropped because the event ring was full")
+                .register(meterRegistry);
+
+        running = true;
+        appender = new Thread(this::drainLoop, "event-log-appender");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    /**
+     * Stops the appender after it has written what is already queued.
+     *
+     * @throws InterruptedException if interrupted while waiting for the appender.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (appender != null) {
+            running = false;
+            appender.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Records a completed HTTP request.
+     */
+    public void request(String method, String path, int status, long durationMicros, String principal, String clientIp) {
+        publish(Type.REQUEST, method, path, principal, clientIp, status, durationMicros);
+    }
+
+    /**
+     * Records a failed authentication attempt made by the current request.
+     */
+    public void authFailure(String username, String reason) {
+        String clientIp = null;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            clientIp = attributes.getRequest().getRemoteAddr();
+        }
+        authFailure(username, reason, clientIp);
+    }
+
+    /**
+     * Records a failed authentication attempt.
+     */
+    public void authFailure(String username, String reason, String clientIp) {
+        publish(Type.AUTH_FAILURE, username, reason, clientIp, null, 0, 0);
+    }
+
+    /**
+     * Records a committed catalog write.
+     */
+    public void catalogWrite(String operation, long bookId, String principal) {
+        publish(Type.CATALOG_WRITE, operation, principal, null, null, bookId, 0);
+    }
+
+    /**
+     * @return events dropped so far because the ring was full
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return events handed to the {@code bookstore.events} logger so far
+     */
+    public long writtenCount() {
+        return head;
+    }
+
+    private void publish(Type type, String text1, String text2, String text3, String text4, long number1, long number2) {
+        if (!running) {
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        int index = (int) (position & mask);
+        Slot slot = slots[index];
+        slot.type = type;
+        slot.timestamp = System.currentTimeMillis();
+        slot.text1 = text1;
+        slot.text2 = text2;
+        slot.text3 = text3;
+        slot.text4 = text4;
+        slot.number1 = number1;
+        slot.number2 = number2;
+        sequences.set(index, position + 1);
+    }
+
+    private void drainLoop() {
+        int idleSpins = 0;
+        while (running || tail.get() != head) {
+            if (drainOne()) {
+                idleSpins = 0;
+                continue;
+            }
+            reportDropped();
+            idleSpins = Math.min(idleSpins + 1, 10);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100L << idleSpins / 2));
+        }
+        reportDropped();
+    }
+
+    /**
+     * Writes the next event if one has been published.
+     *
+     * @return {@code true} if an event was written
+     */
+    private boolean drainOne() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return false;
+        }
+        Slot slot = slots[index];
+        render(slot);
+        slot.text1 = slot.text2 = slot.text3 = slot.text4 = null;
+        sequences.set(index, head + slots.length);
+        head++;
+        try {
+            EVENTS.info(line.toString());
+        } catch (RuntimeException ignored) {
+            // never let a broken appender stop the drain loop
+        }
+        return true;
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        if (total != droppedReported) {
+            EVENTS.warn("{\"event\":\"dropped\",\"count\":" + (total - droppedReported) + ",\"total\":" + total + "}");
+            droppedReported = total;
+        }
+    }
+
+    private void render(Slot slot) {
+        line.setLength(0);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(slot.timestamp)).append('"');
+        switch (slot.type) {
+            case REQUEST -> {
+                field("event", "request");
+                field("method", slot.text1);
+                field("path", slot.text2);
+                line.append(",\"status\":").append(slot.number1);
+                line.append(",\"durationUs\":").append(slot.number2);
+                field("user", slot.text3);
+                field("ip", slot.text4);
+            }
+            case AUTH_FAILURE -> {
+                field("event", "auth_failure");
+                field("user", slot.text1);
+                field("reason", slot.text2);
+                field("ip", slot.text3);
+            }
+            case CATALOG_WRITE -> {
+                field("event", "catalog_write");
+                field("op", slot.text1);
+                line.append(",\"bookId\":").append(slot.number1);
+                field("user", slot.text2);
+            }
+        }
+        line.append('}');
+    }
+
+    private void field(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
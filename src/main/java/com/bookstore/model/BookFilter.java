@@ -0,0 +1,18 @@
+package com.bookstore.model;
+
+/**
+ * Criteria for filtering the catalog. Every criterion is optional; a {@code null}
+ * value means "any". Genre and author are matched exactly, ignoring case, and the
+ * price bounds are inclusive.
+ *
+ * @param genre    the genre to match
+ * @param author   the author to match
+ * @param minPrice the lowest price to include
+ * @param maxPrice the highest price to include
+ */
+public record BookFilter(String genre, String author, Double minPrice, Double maxPrice) {
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookstore.model;
+
+import java.util.List;
+
+/**
+ * A bulk change to every book matching a filter.
+ *
+ * @param filter    genre, author and price criteria; {@code null} fields match anything
+ * @param ids       restricts the change to these book ids, may be {@code null}
+ * @param operation what to do with the matching books
+ * @param price     the new price, for {@link Operation#SET_PRICE}
+ * @param percent   the price change in percent, e.g. {@code -10} for a 10% discount,
+ *                  for {@link Operation#ADJUST_PRICE_PERCENT}; results are rounded to cents
+ * @param genre     the new genre, for {@link Operation#SET_GENRE}
+ */
+public record BulkBookRequest(BookFilter filter, List<Long> ids, Operation operation, Double price, Double percent,
+                              String genre) {
+
+    /**
+     * @return the multiplier for {@link Operation#ADJUST_PRICE_PERCENT}
+     */
+    public double priceFactor() {
+        return 1 + percent / 100;
+    }
+
+    public enum Operation {
+        SET_PRICE,
+        ADJUST_PRICE_PERCENT,
+        SET_GENRE,
+        DELETE
+    }
+}
@@ -0,0 +1,14 @@
+package com.bookstore.model;
+
+/**
+ * Outcome of a bulk change.
+ *
+ * @param operation  the operation that was applied
+ * @param matched    the number of books that matched the filter
+ * @param affected   the number of rows the statements changed or deleted
+ * @param chunks     the number of transactions the change was split into
+ * @param durationMs how long the change took
+ */
+public record BulkBookResult(BulkBookRequest.Operation operation, long matched, long affected, int chunks,
+                             long durationMs) {
+}
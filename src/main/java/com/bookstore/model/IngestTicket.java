@@ -0,0 +1,83 @@
+package com.bookstore.model;
+
+import com.bookstore.entity.Book;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tracks a single book accepted by the asynchronous ingest endpoint.
+ * Callers receive the ticket id immediately and can poll it until the
+ * book has been written (or the write has failed).
+ */
+@Getter
+public class IngestTicket {
+
+    public enum Status {
+        QUEUED,
+        SAVED,
+        FAILED
+    }
+
+    private final long ticketId;
+
+    private final long acceptedAt;
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile Long bookId;
+
+    private volatile String error;
+
+    private volatile long completedAt;
+
+    /**
+     * The book waiting to be written. Released once the ticket completes.
+     */
+    @JsonIgnore
+    private volatile Book book;
+
+    /**
+     * Completed with the saved book, for in-process callers that want to wait.
+     */
+    @JsonIgnore
+    private final CompletableFuture<Book> future = new CompletableFuture<>();
+
+    public IngestTicket(long ticketId, Book book) {
+        this.ticketId = ticketId;
+        this.book = book;
+        this.acceptedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Marks the ticket as saved.
+     *
+     * @param saved the persisted book, carrying its generated id
+     */
+    public void complete(Book saved) {
+        this.bookId = saved.getBookId();
+        this.completedAt = System.currentTimeMillis();
+        this.status = Status.SAVED;
+        this.book = null;
+        future.complete(saved);
+    }
+
+    /**
+     * Marks the ticket as failed.
+     *
+     * @param cause the exception raised while writing the book
+     */
+    public void fail(Throwable cause) {
+        this.error = cause.getMessage();
+        this.completedAt = System.currentTimeMillis();
+        this.status = Status.FAILED;
+        this.book = null;
+        future.completeExceptionally(cause);
+    }
+
+    @JsonIgnore
+    public boolean isDone() {
+        return status != Status.QUEUED;
+    }
+}
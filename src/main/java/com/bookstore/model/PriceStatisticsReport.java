@@ -0,0 +1,25 @@
+package com.bookstore.model;
+
+import java.util.List;
+
+/**
+ * Result of comparing the incrementally maintained price statistics with a full recompute.
+ *
+ * @param groupsChecked the number of genre and author groups compared
+ * @param mismatches    the groups that differ, at most 100
+ * @param repaired      whether the recomputed statistics replaced the maintained ones
+ * @param durationMs    how long the recompute took
+ */
+public record PriceStatisticsReport(int groupsChecked, List<Mismatch> mismatches, boolean repaired, long durationMs) {
+
+    /**
+     * One group whose maintained statistics differ from the recomputed ones.
+     *
+     * @param dimension   {@code genre} or {@code author}
+     * @param group       the group value
+     * @param maintained  the maintained statistics, or {@code null} if the group was missing
+     * @param recomputed  the recomputed statistics, or {@code null} if the group should not exist
+     */
+    public record Mismatch(String dimension, String group, PriceSummary maintained, PriceSummary recomputed) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.bookstore.model;
+
+/**
+ * Price statistics of one genre or author. Books without a price are not counted.
+ *
+ * @param group        the genre or author
+ * @param count        the number of priced books in the group
+ * @param minPrice     the lowest price
+ * @param maxPrice     the highest price
+ * @param averagePrice the mean price
+ */
+public record PriceSummary(String group, long count, double minPrice, double maxPrice, double averagePrice) {
+}
@@ -0,0 +1,9 @@
+package com.bookstore.model;
+
+/**
+ * Request body carrying a refresh token.
+ *
+ * @param refreshToken the refresh token issued at login or by the last refresh
+ */
+public record RefreshRequest(String refreshToken) {
+}
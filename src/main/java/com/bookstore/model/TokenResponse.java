@@ -0,0 +1,12 @@
+package com.bookstore.model;
+
+/**
+ * Tokens returned by login and refresh.
+ *
+ * @param accessToken  short-lived JWT to send as {@code Authorization: Bearer ...}
+ * @param refreshToken opaque token to exchange for a new pair at {@code /api/users/refresh}
+ * @param tokenType    always {@code Bearer}
+ * @param expiresIn    lifetime of the access token in seconds
+ */
+public record TokenResponse(String accessToken, String refreshToken, String tokenType, long expiresIn) {
+}
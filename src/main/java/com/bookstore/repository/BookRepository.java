@@ -1,9 +1,19 @@
 package com.bookstore.repository;
 
 import com.bookstore.entity.Book;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for managing {@link Book} entities.
  */
@@ -33,4 +43,152 @@ public interface BookRepository extends JpaRepository<Book,Long> {
      * @return a page of books matching the search criteria
      */
     public Book findByBookGenreIgnoreCase(String genre);
+
+    /**
+     * Finds books with an id greater than the given one, in id order.
+     * Used to page through the whole catalog without offset scans.
+     *
+     * @param bookId   the last id already read
+     * @param pageable the page size (the page number should be 0)
+     * @return the next books in id order
+     */
+    public List<Book> findByBookIdGreaterThanOrderByBookIdAsc(Long bookId, Pageable pageable);
+
+    /**
+     * Finds books written after the given time, in id order.
+     *
+     * @param since epoch milliseconds
+     * @return the books written after {@code since}
+     */
+    public List<Book> findByBookUpdatedAtGreaterThanOrderByBookIdAsc(Long since);
+
+    /**
+     * Lists the ids of all books without loading the rows.
+     *
+     * @return the ids in ascending order
+     */
+    @Query("select b.bookId from Book b order by b.bookId")
+    public List<Long> findAllIds();
+
+    /**
+     * Finds books matching optional genre, author and price criteria (case-insensitive).
+     *
+     * @param genre    the genre to match, or {@code null} for any
+     * @param author   the author to match, or {@code null} for any
+     * @param minPrice the lowest price, or {@code null} for no lower bound
+     * @param maxPrice the highest price, or {@code null} for no upper bound
+     * @return the matching books in id order
+     */
+    @Query("select b from Book b where (:genre is null or lower(b.bookGenre) = lower(:genre)) " +
+            "and (:author is null or lower(b.bookAuthor) = lower(:author)) " +
+            "and (:minPrice is null or b.bookPrice >= :minPrice) " +
+            "and (:maxPrice is null or b.bookPrice <= :maxPrice) order by b.bookId")
+    public List<Book> filterBooks(@Param("genre") String genre, @Param("author") String author,
+                                  @Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
+
+    /**
+     * Finds the ids of books after the given id matching optional genre, author and price criteria.
+     *
+     * @param afterId  the last id already read
+     * @param genre    the genre to match, or {@code null} for any
+     * @param author   the author to match, or {@code null} for any
+     * @param minPrice the lowest price, or {@code null} for no lower bound
+     * @param maxPrice the highest price, or {@code null} for no upper bound
+     * @param pageable the page size (the page number should be 0)
+     * @return the matching ids in ascending order
+     */
+    @Query("select b.bookId from Book b where b.bookId > :afterId " +
+            "and (:genre is null or lower(b.bookGenre) = lower(:genre)) " +
+            "and (:author is null or lower(b.bookAuthor) = lower(:author)) " +
+            "and (:minPrice is null or b.bookPrice >= :minPrice) " +
+            "and (:maxPrice is null or b.bookPrice <= :maxPrice) order by b.bookId")
+    public List<Long> findMatchingIdsAfter(@Param("afterId") Long afterId, @Param("genre") String genre,
+                                           @Param("author") String author, @Param("minPrice") Double minPrice,
+                                           @Param("maxPrice") Double maxPrice, Pageable pageable);
+
+    /**
+     * Finds and locks the books among the given ids matching optional genre, author and price
+     * criteria, so that they cannot change until the transaction ends.
+     *
+     * @param ids      the ids to consider
+     * @param genre    the genre to match, or {@code null} for any
+     * @param author   the author to match, or {@code null} for any
+     * @param minPrice the lowest price, or {@code null} for no lower bound
+     * @param maxPrice the highest price, or {@code null} for no upper bound
+     * @return the matching books in id order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.bookId in :ids " +
+            "and (:genre is null or lower(b.bookGenre) = lower(:genre)) " +
+            "and (:author is null or lower(b.bookAuthor) = lower(:author)) " +
+            "and (:minPrice is null or b.bookPrice >= :minPrice) " +
+            "and (:maxPrice is null or b.bookPrice <= :maxPrice) order by b.bookId")
+    public List<Book> lockMatchingIn(@Param("ids") Collection<Long> ids, @Param("genre") String genre,
+                                     @Param("author") String author, @Param("minPrice") Double minPrice,
+                                     @Param("maxPrice") Double maxPrice);
+
+    /**
+     * Finds and locks a book, so that it cannot change until the transaction ends.
+     *
+     * @param bookId the id of the book
+     * @return the book, or empty if there is none with this id
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.bookId = :bookId")
+    public Optional<Book> lockById(@Param("bookId") Long bookId);
+
+    /**
+     * Finds the books with the given ids.
+     *
+     * @param ids the ids to load
+     * @return the books in id order
+     */
+    public List<Book> findByBookIdInOrderByBookIdAsc(Collection<Long> ids);
+
+    /**
+     * Sets the price of the given books in one statement.
+     *
+     * @param ids   the books to change
+     * @param price the new price
+     * @param now   the write time, in epoch milliseconds
+     * @return the number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.bookPrice = :price, b.bookUpdatedAt = :now where b.bookId in :ids")
+    public int updatePrice(@Param("ids") Collection<Long> ids, @Param("price") Double price, @Param("now") Long now);
+
+    /**
+     * Multiplies the price of the given books in one statement, rounding to cents.
+     *
+     * @param ids    the books to change
+     * @param factor the multiplier
+     * @param now    the write time, in epoch milliseconds
+     * @return the number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.bookPrice = round(b.bookPrice * :factor, 2), b.bookUpdatedAt = :now " +
+            "where b.bookId in :ids")
+    public int scalePrice(@Param("ids") Collection<Long> ids, @Param("factor") Double factor, @Param("now") Long now);
+
+    /**
+     * Sets the genre of the given books in one statement.
+     *
+     * @param ids   the books to change
+     * @param genre the new genre
+     * @param now   the write time, in epoch milliseconds
+     * @return the number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Book b set b.bookGenre = :genre, b.bookUpdatedAt = :now where b.bookId in :ids")
+    public int updateGenre(@Param("ids") Collection<Long> ids, @Param("genre") String genre, @Param("now") Long now);
+
+    /**
+     * Deletes the given books in one statement, without loading them.
+     *
+     * @param ids the books to remove
+     * @return the number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Book b where b.bookId in :ids")
+    public int deleteByIds(@Param("ids") Collection<Long> ids);
 }
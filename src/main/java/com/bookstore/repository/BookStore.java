@@ -0,0 +1,153 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.model.BulkBookRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Storage for {@link Book}s. Backed by {@link JpaBookStore} on the primary database,
+ * or by {@code ShardedBookStore} when {@code bookstore.sharding.enabled} is set.
+ */
+public interface BookStore {
+
+    /**
+     * A book as it was before and after a write.
+     *
+     * @param previous the book before the write
+     * @param current  the book after the write
+     */
+    record Update(Book previous, Book current) {
+    }
+
+    /**
+     * @return every book, in id order
+     */
+    List<Book> findAll();
+
+    /**
+     * @param limit the maximum number of books to return
+     * @return the books with the highest ids, highest first
+     */
+    List<Book> findLatest(int limit);
+
+    /**
+     * @param bookId the id of the book
+     * @return the book, or empty if there is none with this id
+     */
+    Optional<Book> findById(Long bookId);
+
+    /**
+     * @param lastId the last id already read
+     * @param limit  the maximum number of books to return
+     * @return the books with an id greater than {@code lastId}, in id order
+     */
+    List<Book> findAfter(Long lastId, int limit);
+
+    /**
+     * @param since epoch milliseconds
+     * @return the books written after {@code since}, in id order
+     */
+    List<Book> findUpdatedSince(long since);
+
+    /**
+     * @return the ids of all books, in ascending order
+     */
+    List<Long> findAllIds();
+
+    /**
+     * @param title the title to match (case-insensitive)
+     * @return the matching book, or {@code null} if there is none
+     */
+    Book findByTitle(String title);
+
+    /**
+     * @param author the author to match (case-insensitive)
+     * @return the matching book, or {@code null} if there is none
+     */
+    Book findByAuthor(String author);
+
+    /**
+     * @param genre the genre to match (case-insensitive)
+     * @return the matching book, or {@code null} if there is none
+     */
+    Book findByGenre(String genre);
+
+    /**
+     * @param filter the criteria; {@code null} fields match anything
+     * @return the matching books, in id order
+     */
+    List<Book> filter(BookFilter filter);
+
+    /**
+     * Inserts a book without an id, or updates the book with the given id.
+     *
+     * @param book the book to store
+     * @return the stored book, carrying its id
+     */
+    Book save(Book book);
+
+    /**
+     * Stores several books.
+     *
+     * @param books the books to store
+     * @return the stored books, in the same order as given
+     */
+    List<Book> saveAll(List<Book> books);
+
+    /**
+     * Inserts new books in bulk, bypassing the persistence context. The ids assigned
+     * to the rows are not returned.
+     *
+     * @param books books without ids
+     */
+    void insertAll(List<Book> books);
+
+    /**
+     * Locks a book, applies the change to it and stores it in one transaction, which joins
+     * the caller's if there is one. Concurrent updates of the same book therefore see each
+     * other's result rather than the same old row.
+     *
+     * @param bookId the id of the book
+     * @param change applied to the locked book
+     * @return the book before and after the change, or empty if there is no book with this id
+     */
+    Optional<Update> update(Long bookId, Consumer<Book> change);
+
+    /**
+     * Locks and deletes a book in one transaction, which joins the caller's if there is one.
+     *
+     * @param bookId the id of the book
+     * @return the deleted book, or empty if there was none, e.g. because a concurrent call deleted it
+     */
+    Optional<Book> deleteById(Long bookId);
+
+    /**
+     * Finds the ids of books matching the filter, for bulk changes.
+     *
+     * @param filter  the criteria; {@code null} fields match anything
+     * @param afterId the last id already read
+     * @param limit   the maximum number of ids to return
+     * @return the ids greater than {@code afterId} of the matching books, in ascending order
+     */
+    List<Long> findMatchingIds(BookFilter filter, Long afterId, int limit);
+
+    /**
+     * Applies a bulk change to those of the given books that match the filter. The books are
+     * locked and read, changed with one statement and read back in a single transaction, or
+     * in one transaction per shard. After each transaction commits, {@code committed} receives
+     * the books as they were before and after the change; the after list is empty for deletes.
+     *
+     * @param ids       the candidate books
+     * @param filter    the criteria, checked again under the lock
+     * @param change    the operation and its value
+     * @param committed called with the before and after images of each committed transaction
+     * @return the number of rows changed
+     */
+    int applyBulkChange(List<Long> ids, BookFilter filter, BulkBookRequest change,
+                        BiConsumer<List<Book>, List<Book>> committed);
+}
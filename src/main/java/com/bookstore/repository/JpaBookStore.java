@@ -0,0 +1,185 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.model.BulkBookRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * {@link BookStore} on the primary database, through {@link BookRepository}.
+ */
+@Component
+@ConditionalOnProperty(name = "bookstore.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class JpaBookStore implements BookStore {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public List<Book> findAll() {
+        return bookRepository.findAll(Sort.by("bookId"));
+    }
+
+    @Override
+    public List<Book> findLatest(int limit) {
+        return bookRepository.findAll(PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "bookId"))).getContent();
+    }
+
+    @Override
+    public Optional<Book> findById(Long bookId) {
+        return bookRepository.findById(bookId);
+    }
+
+    @Override
+    public List<Book> findAfter(Long lastId, int limit) {
+        return bookRepository.findByBookIdGreaterThanOrderByBookIdAsc(lastId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Book> findUpdatedSince(long since) {
+        return bookRepository.findByBookUpdatedAtGreaterThanOrderByBookIdAsc(since);
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        return bookRepository.findAllIds();
+    }
+
+    @Override
+    public Book findByTitle(String title) {
+        return bookRepository.findByBookTitleIgnoreCase(title);
+    }
+
+    @Override
+    public Book findByAuthor(String author) {
+        return bookRepository.findByBookAuthorIgnoreCase(author);
+    }
+
+    @Override
+    public Book findByGenre(String genre) {
+        return bookRepository.findByBookGenreIgnoreCase(genre);
+    }
+
+    @Override
+    public List<Book> filter(BookFilter filter) {
+        return bookRepository.filterBooks(filter.genre(), filter.author(), filter.minPrice(), filter.maxPrice());
+    }
+
+    /**
+     * Inserts or updates the book. An id that is not stored, such as one assigned by a batch
+     * whose transaction rolled back, is cleared so that the book is inserted under a new id.
+     *
+     * @param book the book to store
+     * @return the stored book, carrying its id
+     */
+    @Override
+    public Book save(Book book) {
+        if (book.getBookId() != null && !bookRepository.existsById(book.getBookId())) {
+            book.setBookId(null);
+        }
+        return bookRepository.save(book);
+    }
+
+    @Override
+    public List<Book> saveAll(List<Book> books) {
+        return bookRepository.saveAll(books);
+    }
+
+    /**
+     * Inserts the books with one JDBC batch, since identity ids rule out batching through JPA.
+     *
+     * @param books books without ids
+     */
+    @Override
+    public void insertAll(List<Book> books) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.batchUpdate("insert into book (book_title, book_author, book_genre, book_price, book_updated_at) "
+                + "values (?, ?, ?, ?, ?)", books, books.size(), (ps, book) -> {
+            ps.setString(1, book.getBookTitle());
+            ps.setString(2, book.getBookAuthor());
+            ps.setString(3, book.getBookGenre());
+            ps.setObject(4, book.getBookPrice(), Types.DOUBLE);
+            ps.setLong(5, now);
+        });
+    }
+
+    @Override
+    public Optional<Update> update(Long bookId, Consumer<Book> change) {
+        return transactionTemplate.execute(status -> bookRepository.lockById(bookId).map(book -> {
+            Book previous = copyOf(book);
+            change.accept(book);
+            return new Update(previous, bookRepository.saveAndFlush(book));
+        }));
+    }
+
+    @Override
+    public Optional<Book> deleteById(Long bookId) {
+        return transactionTemplate.execute(status -> bookRepository.lockById(bookId).map(book -> {
+            bookRepository.delete(book);
+            return book;
+        }));
+    }
+
+    @Override
+    public List<Long> findMatchingIds(BookFilter filter, Long afterId, int limit) {
+        return bookRepository.findMatchingIdsAfter(afterId, filter.genre(), filter.author(), filter.minPrice(),
+                filter.maxPrice(), PageRequest.of(0, limit));
+    }
+
+    @Override
+    public int applyBulkChange(List<Long> ids, BookFilter filter, BulkBookRequest change,
+                               BiConsumer<List<Book>, List<Book>> committed) {
+        BulkWrite write = transactionTemplate.execute(status -> {
+            List<Book> before = bookRepository.lockMatchingIn(ids, filter.genre(), filter.author(),
+                    filter.minPrice(), filter.maxPrice());
+            if (before.isEmpty()) {
+                return null;
+            }
+            List<Long> matched = before.stream().map(Book::getBookId).toList();
+            long now = System.currentTimeMillis();
+            int affected = switch (change.operation()) {
+                case SET_PRICE -> bookRepository.updatePrice(matched, change.price(), now);
+                case ADJUST_PRICE_PERCENT -> bookRepository.scalePrice(matched, change.priceFactor(), now);
+                case SET_GENRE -> bookRepository.updateGenre(matched, change.genre(), now);
+                case DELETE -> bookRepository.deleteByIds(matched);
+            };
+            List<Book> after = change.operation() == BulkBookRequest.Operation.DELETE
+                    ? List.of() : bookRepository.findByBookIdInOrderByBookIdAsc(matched);
+            return new BulkWrite(before, after, affected);
+        });
+        if (write == null) {
+            return 0;
+        }
+        committed.accept(write.before(), write.after());
+        return write.affected();
+    }
+
+    private static Book copyOf(Book book) {
+        return new Book(book.getBookId(), book.getBookTitle(), book.getBookAuthor(), book.getBookGenre(),
+                book.getBookPrice(), book.getBookUpdatedAt());
+    }
+
+    /**
+     * The books a bulk change locked, what they became and how many rows it changed.
+     */
+    private record BulkWrite(List<Book> before, List<Book> after, int affected) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.bookstore.repository;
+
+import com.bookstore.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for managing {@link RefreshToken} entities.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Marks a token as used, only if it has not been used yet.
+     *
+     * @param tokenHash the hash of the token
+     * @return 1 if this call marked it, 0 if it was already used
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken r set r.used = true where r.tokenHash = :tokenHash and r.used = false")
+    int markUsed(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes every token of a family.
+     *
+     * @param familyId the family id
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+
+    /**
+     * Deletes tokens that have expired.
+     *
+     * @param now the current time
+     * @return the number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,146 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.model.BulkBookRequest;
+import com.bookstore.model.BulkBookResult;
+import com.bookstore.repository.BookStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Applies one change (set a price, adjust prices by a percentage, reassign a genre or
+ * delete) to every book matching a filter, for catalog maintenance.
+ * <p>
+ * The matching books are walked in id order, {@code chunk-size} at a time. Each chunk is
+ * one transaction (one per shard when sharding is enabled): lock and read the books that
+ * still match, run a single set-based update or delete over their ids, and read them back.
+ * Transactions therefore stay short however many books match, and a failure leaves the
+ * chunks before it committed. The locked before images and the after images are handed to
+ * the {@link BookChangeListener}s as soon as each transaction has committed, while the
+ * chunk's {@link BookWriteLocks} are still held, so the in-memory catalog, caches and
+ * statistics follow the change exactly.
+ * <p>
+ * A request must have at least one criterion or an id list, so that a missing filter
+ * cannot change the whole catalog by accident.
+ */
+@Slf4j
+@Service
+public class BookBulkService {
+
+    @Autowired
+    private BookStore bookStore;
+
+    @Autowired
+    private List<BookChangeListener> changeListeners;
+
+    @Autowired
+    private BookWriteLocks writeLocks;
+
+    @Value("${bookstore.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Applies the change chunk by chunk.
+     *
+     * @param request the filter and the change to apply
+     * @return how many books matched and how many rows were changed
+     * @throws InvalidBulkRequestException if the request has no criteria or lacks the value its operation needs
+     */
+    public BulkBookResult apply(BulkBookRequest request) {
+        validate(request);
+        BookFilter filter = request.filter() == null ? new BookFilter(null, null, null, null) : request.filter();
+        long started = System.currentTimeMillis();
+        AtomicLong matched = new AtomicLong();
+        BiConsumer<List<Book>, List<Book>> committed = (before, after) -> {
+            matched.addAndGet(before.size());
+            notifyListeners(before, after);
+        };
+        long affected = 0;
+        int chunks = 0;
+
+        if (request.ids() == null) {
+            Long lastId = Long.MIN_VALUE;
+            while (true) {
+                List<Long> ids = bookStore.findMatchingIds(filter, lastId, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                affected += writeLocks.withLocks(ids,
+                        () -> bookStore.applyBulkChange(ids, filter, request, committed));
+                chunks++;
+                lastId = ids.get(ids.size() - 1);
+            }
+        } else {
+            List<Long> ids = request.ids().stream().distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> candidates = ids.subList(from, Math.min(ids.size(), from + chunkSize));
+                affected += writeLocks.withLocks(candidates,
+                        () -> bookStore.applyBulkChange(candidates, filter, request, committed));
+                chunks++;
+            }
+        }
+
+        long durationMs = System.currentTimeMillis() - started;
+        log.info("Bulk {} matched {} books and changed {} rows in {} chunks ({} ms)",
+                request.operation(), matched.get(), affected, chunks, durationMs);
+        return new BulkBookResult(request.operation(), matched.get(), affected, chunks, durationMs);
+    }
+
+    /**
+     * Reports every book of a committed transaction as updated or deleted.
+     */
+    private void notifyListeners(List<Book> before, List<Book> after) {
+        Map<Long, Book> changed = new HashMap<>(after.size() * 2);
+        after.forEach(book -> changed.put(book.getBookId(), book));
+        BookChangeNotifier.afterCommit(changeListeners, listener -> {
+            for (Book previous : before) {
+                Book current = changed.get(previous.getBookId());
+                if (current == null) {
+                    listener.bookDeleted(previous);
+                } else {
+                    listener.bookUpdated(previous, current);
+                }
+            }
+        });
+    }
+
+    private static void validate(BulkBookRequest request) {
+        if (request.operation() == null) {
+            throw new InvalidBulkRequestException("An operation is required");
+        }
+        BookFilter filter = request.filter();
+        boolean hasCriteria = filter != null && (filter.genre() != null || filter.author() != null
+                || filter.hasPriceRange());
+        if (request.ids() != null ? request.ids().isEmpty() : !hasCriteria) {
+            throw new InvalidBulkRequestException("A filter criterion or a non-empty id list is required");
+        }
+        switch (request.operation()) {
+            case SET_PRICE -> {
+                if (request.price() == null || request.price() < 0) {
+                    throw new InvalidBulkRequestException("SET_PRICE needs a price of at least 0");
+                }
+            }
+            case ADJUST_PRICE_PERCENT -> {
+                if (request.percent() == null || request.percent() <= -100) {
+                    throw new InvalidBulkRequestException("ADJUST_PRICE_PERCENT needs a percent above -100");
+                }
+            }
+            case SET_GENRE -> {
+                if (request.genre() == null || request.genre().isBlank()) {
+                    throw new InvalidBulkRequestException("SET_GENRE needs a genre");
+                }
+            }
+            case DELETE -> {
+            }
+        }
+    }
+}
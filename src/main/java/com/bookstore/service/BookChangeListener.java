@@ -0,0 +1,43 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+
+/**
+ * Receives catalog writes made through {@link BookServiceImpl}.
+ * Callbacks run after the surrounding transaction has committed, on the thread
+ * that made the change, so implementations should be quick and must not throw.
+ */
+public interface BookChangeListener {
+
+    /**
+     * Called after a new book has been stored.
+     *
+     * @param book the stored book, with its id
+     */
+    default void bookSaved(Book book) {
+    }
+
+    /**
+     * Called after an existing book has been changed.
+     *
+     * @param previous a copy of the book before the change
+     * @param current  the book after the change
+     */
+    default void bookUpdated(Book previous, Book current) {
+    }
+
+    /**
+     * Called after a book has been removed.
+     *
+     * @param book the book as it was before removal
+     */
+    default void bookDeleted(Book book) {
+    }
+
+    /**
+     * Called when the catalog changed in a way that is not described book by book,
+     * e.g. a bulk load. Listeners holding derived state should rebuild it.
+     */
+    default void catalogChanged() {
+    }
+}
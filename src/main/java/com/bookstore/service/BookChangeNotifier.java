@@ -0,0 +1,48 @@
+package com.bookstore.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches {@link BookChangeListener} callbacks for the services that write the catalog.
+ */
+@Slf4j
+final class BookChangeNotifier {
+
+    private BookChangeNotifier() {
+    }
+
+    /**
+     * Notifies the change listeners once the current transaction has committed,
+     * or straight away if there is none. A failing listener does not affect the others.
+     *
+     * @param listeners the listeners to notify
+     * @param event     the callback to run on every listener
+     */
+    static void afterCommit(List<BookChangeListener> listeners, Consumer<BookChangeListener> event) {
+        Runnable dispatch = () -> {
+            for (BookChangeListener listener : listeners) {
+                try {
+                    event.accept(listener);
+                } catch (RuntimeException e) {
+                    log.error("Book change listener {} failed", listener.getClass().getSimpleName(), e);
+                }
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch.run();
+                }
+            });
+        } else {
+            dispatch.run();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.IngestTicket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Coalesces high-rate single-book inserts into batched writes.
+ * <p>
+ * Requests are placed on a bounded queue and acknowledged with a ticket. A single
+ * writer thread drains the queue and saves up to {@code batch-size} books in one
+ * transaction, or whatever has arrived once {@code flush-interval-ms} has elapsed.
+ * A ticket only means the book has been accepted into memory: books still queued
+ * when the process dies are lost. Callers that need durability should poll the
+ * ticket until it reports {@code SAVED}, or use the synchronous endpoint.
+ * <p>
+ * When ingest is disabled, {@link #submit(Book)} saves the book synchronously and
+ * returns an already completed ticket.
+ */
+@Slf4j
+@Service
+public class BookIngestService {
+
+    @Autowired
+    private BookService bookService;
+
+    @Value("${bookstore.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${bookstore.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${bookstore.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${bookstore.ingest.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    /**
+     * How long a request may wait for queue space before it is rejected.
+     */
+    @Value("${bookstore.ingest.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    /**
+     * How long completed tickets stay available for lookup.
+     */
+    @Value("${bookstore.ingest.ticket-retention-ms:600000}")
+    private long ticketRetentionMs;
+
+    private final Map<Long, IngestTicket> tickets = new ConcurrentHashMap<>();
+
+    private final AtomicLong ticketSequence = new AtomicLong();
+
+    /**
+     * Read-locked by {@link #submit(Book)} around its check and enqueue, write-locked by
+     * {@link #stop()}, so no book is enqueued after the writer has been told to stop.
+     */
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+
+    private BlockingQueue<IngestTicket> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private volatile long lastEviction;
+
+    /**
+     * Starts the writer thread when asynchronous ingest is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "book-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting work and waits for the writer to flush what is already queued.
+     * Books the writer could not flush in time are failed rather than left queued.
+     *
+     * @throws InterruptedException if interrupted while waiting for the writer.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        lifecycleLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+
+        List<IngestTicket> leftovers = new ArrayList<>();
+        lifecycleLock.writeLock().lock();
+        try {
+            queue.drainTo(leftovers);
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+        if (!leftovers.isEmpty()) {
+            log.warn("Book ingest stopped with {} books still queued", leftovers.size());
+            IllegalStateException stopped = new IllegalStateException("Ingest stopped before the book was written");
+            leftovers.forEach(ticket -> ticket.fail(stopped));
+        }
+    }
+
+    /**
+     * Accepts a book for writing.
+     *
+     * @param book the book to save
+     * @return a ticket that completes once the book has been written
+     * @throws IngestQueueFullException if the queue stays full for longer than the offer timeout
+     */
+    public IngestTicket submit(Book book) {
+        IngestTicket ticket = new IngestTicket(ticketSequence.incrementAndGet(), book);
+        tickets.put(ticket.getTicketId(), ticket);
+
+        if (!enabled) {
+            try {
+                ticket.complete(bookService.saveBook(book));
+            } catch (RuntimeException e) {
+                ticket.fail(e);
+                throw e;
+            } finally {
+                evictExpiredTickets();
+            }
+            return ticket;
+        }
+
+        boolean accepted;
+        lifecycleLock.readLock().lock();
+        try {
+            accepted = running && queue.offer(ticket, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+        if (!accepted) {
+            tickets.remove(ticket.getTicketId());
+            throw new IngestQueueFullException("Ingest queue is full (" + queueCapacity + " books)");
+        }
+        return ticket;
+    }
+
+    /**
+     * Looks up a ticket by its id.
+     *
+     * @param ticketId the id returned by {@link #submit(Book)}
+     * @return the ticket, or empty if it is unknown or has expired
+     */
+    public Optional<IngestTicket> findTicket(long ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    /**
+     * Number of books currently waiting to be written.
+     */
+    public int queuedBooks() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Writer loop: waits for the first book, then keeps collecting until the batch
+     * is full or the flush interval has elapsed. Exits once stopped and drained.
+     */
+    private void drainLoop() {
+        List<IngestTicket> batch = new ArrayList<>(batchSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestTicket first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + flushIntervalNanos;
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0) {
+                            break;
+                        }
+                        IngestTicket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    flush(batch);
+                    batch.clear();
+                }
+                evictExpiredTickets();
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Book ingest writer failed", e);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Saves a batch in one transaction. If the batch fails, each book is retried on
+     * its own so that a single bad row only fails its own ticket. A failed batch leaves
+     * nothing stored, so before the retry each book gets back the id it arrived with and
+     * drops any id the batch assigned it.
+     *
+     * @param batch the tickets to write
+     */
+    private void flush(List<IngestTicket> batch) {
+        List<Book> books = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (IngestTicket ticket : batch) {
+            books.add(ticket.getBook());
+            ids.add(ticket.getBook().getBookId());
+        }
+
+        try {
+            List<Book> saved = bookService.saveBooks(books);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(saved.get(i));
+            }
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} books failed, retrying individually: {}", batch.size(), e.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            IngestTicket ticket = batch.get(i);
+            Book book = books.get(i);
+            book.setBookId(ids.get(i));
+            try {
+                ticket.complete(bookService.saveBook(book));
+            } catch (RuntimeException e) {
+                ticket.fail(e);
+            }
+        }
+    }
+
+    /**
+     * Drops completed tickets that are older than the retention period, at most once per second.
+     */
+    private void evictExpiredTickets() {
+        long now = System.currentTimeMillis();
+        if (now - lastEviction < 1000) {
+            return;
+        }
+        lastEviction = now;
+        long cutoff = now - ticketRetentionMs;
+        tickets.values().removeIf(ticket -> ticket.isDone() && ticket.getCompletedAt() < cutoff);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link SingleFlight} groups used by {@link BookServiceImpl} so that a burst
+ * of identical catalog reads results in one database query per key.
+ * Title, author and genre lookups are case-insensitive, so their keys are lower-cased.
+ * Callers that share a load each get their own copy of the book.
+ */
+@Component
+public class BookReadCoalescer {
+
+    private final SingleFlight<Long, Book> byId;
+
+    private final SingleFlight<String, Book> byTitle;
+
+    private final SingleFlight<String, Book> byAuthor;
+
+    private final SingleFlight<String, Book> byGenre;
+
+    /**
+     * @param timeoutMs how long a caller waits for another caller's load of the same key
+     */
+    public BookReadCoalescer(@Value("${bookstore.single-flight.timeout-ms:5000}") long timeoutMs) {
+        this.byId = new SingleFlight<>(timeoutMs, BookReadCoalescer::copyOf);
+        this.byTitle = new SingleFlight<>(timeoutMs, BookReadCoalescer::copyOf);
+        this.byAuthor = new SingleFlight<>(timeoutMs, BookReadCoalescer::copyOf);
+        this.byGenre = new SingleFlight<>(timeoutMs, BookReadCoalescer::copyOf);
+    }
+
+    public Book byId(Long bookId, Supplier<Book> loader) {
+        return byId.execute(bookId, loader);
+    }
+
+    public Book byTitle(String title, Supplier<Book> loader) {
+        return byTitle.execute(normalize(title), loader);
+    }
+
+    public Book byAuthor(String author, Supplier<Book> loader) {
+        return byAuthor.execute(normalize(author), loader);
+    }
+
+    public Book byGenre(String genre, Supplier<Book> loader) {
+        return byGenre.execute(normalize(genre), loader);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Book copyOf(Book book) {
+        return book == null ? null : new Book(book.getBookId(), book.getBookTitle(), book.getBookAuthor(),
+                book.getBookGenre(), book.getBookPrice(), book.getBookUpdatedAt());
+    }
+}
@@ -1,6 +1,7 @@
 package com.bookstore.service;
 
 import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
 import java.util.List;
 
 public interface BookService {
@@ -8,6 +9,8 @@ public interface BookService {
 
     public Book saveBook(Book book);
 
+    public List<Book> saveBooks(List<Book> books);
+
     public List<Book> fetchBookList();
 
     public Book fetchBookByBookId(Long id);
@@ -22,4 +25,6 @@ public interface BookService {
 
     public Book fetchBookByBookGenre(String genre);
 
+    public List<Book> filterBooks(BookFilter filter);
+
 }
@@ -1,12 +1,16 @@
 package com.bookstore.service;
 
+import com.bookstore.catalog.ColumnarCatalog;
 import com.bookstore.entity.Book;
-import com.bookstore.repository.BookRepository;
+import com.bookstore.model.BookFilter;
+import com.bookstore.repository.BookStore;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the {@link BookService} interface for managing books.
@@ -15,17 +19,45 @@ import java.util.Objects;
 @AllArgsConstructor
 public class BookServiceImpl implements BookService {
 
+    /**
+     * Book storage: the primary database, or the shards when sharding is enabled.
+     */
+    @Autowired
+    private BookStore bookStore;
+
+    @Autowired
+    private BookReadCoalescer readCoalescer;
+
+    /**
+     * In-memory copy of the catalog, used for list and filter reads once loaded.
+     */
+    @Autowired
+    private ColumnarCatalog columnarCatalog;
+
+    /**
+     * Components notified after every committed catalog write.
+     */
+    @Autowired
+    private List<BookChangeListener> changeListeners;
+
+    /**
+     * Keep the writes to a book and their notifications in the same order.
+     */
     @Autowired
-    private BookRepository bookRepository;
+    private BookWriteLocks writeLocks;
 
     /**
      * Retrieves all books.
+     * Served from the in-memory catalog when it is enabled and loaded.
      *
      * @return a list of all books
      */
     @Override
     public List<Book> fetchBookList() {
-        return bookRepository.findAll();
+        if (columnarCatalog.isReady()) {
+            return columnarCatalog.findAll();
+        }
+        return bookStore.findAll();
     }
 
     /**
@@ -36,32 +68,58 @@ public class BookServiceImpl implements BookService {
      */
     @Override
     public Book saveBook(Book book) {
-        return bookRepository.save(book);
+        Book saved = bookStore.save(book);
+        notifyListeners(listener -> listener.bookSaved(saved));
+        return saved;
+    }
+
+    /**
+     * Creates several books in a single transaction.
+     *
+     * @param books the books to be created
+     * @return the created books, in the same order as given
+     */
+    @Override
+    @Transactional
+    public List<Book> saveBooks(List<Book> books) {
+        List<Book> saved = bookStore.saveAll(books);
+        notifyListeners(listener -> saved.forEach(listener::bookSaved));
+        return saved;
     }
 
     /**
      * Retrieves a book by its ID.
+     * Concurrent lookups of the same ID share a single database query.
      *
      * @param bookId the ID of the book
      * @return an optional containing the book if found, or empty if not
      */
     @Override
     public Book fetchBookByBookId(Long bookId) {
-        return bookRepository.findById(bookId).get();
+        return readCoalescer.byId(bookId, () -> bookStore.findById(bookId).get());
     }
 
     /**
-     * Deletes a book by its ID.
+     * Deletes a book by its ID. The row is locked and deleted in one transaction, so of
+     * several concurrent deletes of the same book only the one that removed it notifies
+     * the listeners.
      *
      * @param bookId the ID of the book to delete
      */
     @Override
     public void deleteBookByBookId(Long bookId) {
-        bookRepository.deleteById(bookId);
+        writeLocks.withLocks(List.of(bookId), () -> {
+            bookStore.deleteById(bookId)
+                    .ifPresent(book -> notifyListeners(listener -> listener.bookDeleted(book)));
+            return null;
+        });
     }
 
     /**
-     * Updates an existing book.
+     * Updates an existing book. The row is locked while it is read and written in one
+     * transaction, so concurrent updates of the same book are applied one after the
+     * other, and each notifies the listeners with the state the previous one left
+     * before the next one starts.
      *
      * @param bookId the ID of the book to update
      * @param book the updated book details
@@ -69,39 +127,45 @@ public class BookServiceImpl implements BookService {
      */
     @Override
     public Book updateBook(Long bookId, Book book) {
-        Book bookDB = bookRepository.findById(bookId).get();
+        return writeLocks.withLocks(List.of(bookId), () -> update(bookId, book));
+    }
 
-        if(Objects.nonNull(book.getBookTitle()) &&
-        !"".equalsIgnoreCase(book.getBookTitle())) {
-            bookDB.setBookTitle(book.getBookTitle());
-        }
+    private Book update(Long bookId, Book book) {
+        BookStore.Update update = bookStore.update(bookId, bookDB -> {
+            if(Objects.nonNull(book.getBookTitle()) &&
+            !"".equalsIgnoreCase(book.getBookTitle())) {
+                bookDB.setBookTitle(book.getBookTitle());
+            }
 
-        if(Objects.nonNull(book.getBookGenre()) &&
-                !"".equalsIgnoreCase(book.getBookGenre())) {
-            bookDB.setBookGenre(book.getBookGenre());
-        }
+            if(Objects.nonNull(book.getBookGenre()) &&
+                    !"".equalsIgnoreCase(book.getBookGenre())) {
+                bookDB.setBookGenre(book.getBookGenre());
+            }
 
-        if(Objects.nonNull(book.getBookPrice()) &&
-                !"".equalsIgnoreCase(String.valueOf(book.getBookPrice()))) {
-            bookDB.setBookPrice(book.getBookPrice());
-        }
+            if(Objects.nonNull(book.getBookPrice()) &&
+                    !"".equalsIgnoreCase(String.valueOf(book.getBookPrice()))) {
+                bookDB.setBookPrice(book.getBookPrice());
+            }
 
-        if(Objects.nonNull(book.getBookAuthor()) &&
-                !"".equalsIgnoreCase(book.getBookAuthor())) {
-            bookDB.setBookAuthor(book.getBookAuthor());
-        }
-        return bookRepository.save(bookDB);
+            if(Objects.nonNull(book.getBookAuthor()) &&
+                    !"".equalsIgnoreCase(book.getBookAuthor())) {
+                bookDB.setBookAuthor(book.getBookAuthor());
+            }
+        }).orElseThrow();
+        notifyListeners(listener -> listener.bookUpdated(update.previous(), update.current()));
+        return update.current();
     }
 
     /**
      * Searches for books by title.
+     * Concurrent searches for the same title share a single database query.
      *
      * @param title    the title keyword (optional)
      * @return a paginated list of books matching the search criteria
      */
     @Override
     public Book fetchBookByBookTitle(String title) {
-        return bookRepository.findByBookTitleIgnoreCase(title);
+        return readCoalescer.byTitle(title, () -> bookStore.findByTitle(title));
     }
 
     /**
@@ -112,7 +176,7 @@ public class BookServiceImpl implements BookService {
      */
     @Override
     public Book fetchBookByBookAuthor(String author) {
-        return bookRepository.findByBookAuthorIgnoreCase(author);
+        return readCoalescer.byAuthor(author, () -> bookStore.findByAuthor(author));
     }
 
     /**
@@ -123,6 +187,31 @@ public class BookServiceImpl implements BookService {
      */
     @Override
     public Book fetchBookByBookGenre(String genre) {
-        return bookRepository.findByBookGenreIgnoreCase(genre);
+        return readCoalescer.byGenre(genre, () -> bookStore.findByGenre(genre));
+    }
+
+    /**
+     * Filters books by genre, author and price range.
+     * Served from the in-memory catalog when it is enabled and loaded.
+     *
+     * @param filter the criteria; {@code null} fields match anything
+     * @return the matching books in id order
+     */
+    @Override
+    public List<Book> filterBooks(BookFilter filter) {
+        if (columnarCatalog.isReady()) {
+            return columnarCatalog.filter(filter);
+        }
+        return bookStore.filter(filter);
+    }
+
+    /**
+     * Notifies the change listeners once the current transaction has committed,
+     * or straight away if there is none.
+     *
+     * @param event the callback to run on every listener
+     */
+    private void notifyListeners(Consumer<BookChangeListener> event) {
+        BookChangeNotifier.afterCommit(changeListeners, event);
     }
 }
@@ -0,0 +1,18 @@
+package com.bookstore.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the asynchronous ingest queue stays full for longer than the
+ * configured offer timeout. Clients should back off and retry.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Ingest queue is full, retry later")
+public class IngestQueueFullException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
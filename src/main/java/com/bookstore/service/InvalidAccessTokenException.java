@@ -0,0 +1,17 @@
+package com.bookstore.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request that needs a bearer access token does not carry a valid one.
+ */
+@ResponseStatus(value = HttpStatus.UNAUTHORIZED, reason = "Invalid access token")
+public class InvalidAccessTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidAccessTokenException(String message) {
+        super(message);
+    }
+}
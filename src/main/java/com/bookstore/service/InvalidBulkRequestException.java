@@ -0,0 +1,17 @@
+package com.bookstore.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a bulk change has no criteria or lacks the value its operation needs.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid bulk request")
+public class InvalidBulkRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidBulkRequestException(String message) {
+        super(message);
+    }
+}
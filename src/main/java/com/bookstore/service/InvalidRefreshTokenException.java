@@ -0,0 +1,17 @@
+package com.bookstore.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a refresh token is unknown, expired or has already been used.
+ */
+@ResponseStatus(value = HttpStatus.UNAUTHORIZED, reason = "Invalid refresh token")
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -1,50 +1,174 @@
 package com.bookstore.service;
 
+import com.bookstore.config.JwtProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
  * Service class for handling all JWT-related operations.
  * This includes generating tokens, validating them, and extracting claims such as username and expiration date.
+ * <p>
+ * Tokens are signed with the active key of a shared keyset and carry its id in the {@code kid}
+ * header, so any node configured with the same keys can verify them. Several keys can be active
+ * for verification at once, which allows rotating the signing key without invalidating tokens.
  */
+@Slf4j
 @Service
 public class JWTService {
 
     /**
-     * The secret key used to sign and verify JWTs. It is generated once at runtime.
-     * It is important to use a strong, securely stored key in a production environment.
+     * Profiles in which a missing keyset is replaced by a random per-instance key.
      */
-    private String SECRET_KEY = "";
+    private static final String[] GENERATED_KEY_PROFILES = {"dev", "test"};
+
+    private final JwtProperties properties;
+
+    private final Environment environment;
 
     /**
-     * Constructs the JWTService and generates a secure, random secret key.
-     * The key is generated using HMAC-SHA256 and is encoded in Base64 for storage.
+     * The decoded keys and the parser built from them. Replaced as a whole on reload,
+     * so verification is a map lookup plus an HMAC.
      */
-    public JWTService() {
+    private volatile KeySet keySet;
+
+    /**
+     * Last modification time of the key file, used to detect changes.
+     */
+    private volatile long keyFileModified;
+
+    private record KeySet(String activeKid, SecretKey activeKey, Map<String, SecretKey> keys, JwtParser parser) {
+    }
+
+    /**
+     * Constructs the JWTService and loads the configured keys.
+     * If no keys are configured in the {@code dev} or {@code test} profile, a random key is
+     * generated; tokens then only validate on this instance.
+     *
+     * @param properties the configured keys.
+     * @param environment used to check the active profiles.
+     * @throws IllegalStateException if no keys are configured outside those profiles.
+     */
+    public JWTService(JwtProperties properties, Environment environment) {
+        this.properties = properties;
+        this.environment = environment;
+        loadKeys();
+    }
+
+    /**
+     * Re-reads the inline keys and the key file and swaps in the new keyset.
+     *
+     * @throws IllegalStateException if no keys are configured outside the {@code dev} and {@code test}
+     * profiles, or the active key id is not among the keys.
+     */
+    public void reload() {
+        loadKeys();
+    }
+
+    private void loadKeys() {
+        Map<String, String> encoded = new LinkedHashMap<>(properties.getKeys());
+        String activeKid = properties.getActiveKid();
+
+        if (hasText(properties.getKeyFile())) {
+            Path keyFile = Path.of(properties.getKeyFile());
+            Properties fileKeys = new Properties();
+            try (InputStream in = Files.newInputStream(keyFile)) {
+                keyFileModified = Files.getLastModifiedTime(keyFile).toMillis();
+                fileKeys.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read JWT key file " + keyFile, e);
+            }
+            for (String name : fileKeys.stringPropertyNames()) {
+                if (name.startsWith("key.")) {
+                    encoded.put(name.substring(4), fileKeys.getProperty(name).trim());
+                }
+            }
+            if (hasText(fileKeys.getProperty("active"))) {
+                activeKid = fileKeys.getProperty("active").trim();
+            }
+        }
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        encoded.forEach((kid, secret) -> keys.put(kid, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))));
+
+        if (keys.isEmpty() && !environment.acceptsProfiles(Profiles.of(GENERATED_KEY_PROFILES))) {
+            throw new IllegalStateException("No JWT keys configured: set bookstore.jwt.keys or bookstore.jwt.key-file "
+                    + "so that every instance signs and verifies with the same keys");
+        }
+        if (keys.isEmpty()) {
+            activeKid = "local-" + UUID.randomUUID();
+            keys.put(activeKid, generateKey());
+            log.warn("No JWT keys configured, generated a random key; tokens will not validate on other instances");
+        } else if (!hasText(activeKid) && keys.size() == 1) {
+            activeKid = keys.keySet().iterator().next();
+        }
+        if (!keys.containsKey(activeKid)) {
+            throw new IllegalStateException("Active JWT key id '" + activeKid + "' is not among the configured keys");
+        }
+
+        Map<String, SecretKey> immutableKeys = Map.copyOf(keys);
+        Locator<Key> keyLocator = header -> {
+            String kid = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+            SecretKey key = kid == null ? null : immutableKeys.get(kid);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown JWT key id: " + kid);
+            }
+            return key;
+        };
+        JwtParser parser = Jwts.parser().keyLocator(keyLocator).build();
+
+        keySet = new KeySet(activeKid, immutableKeys.get(activeKid), immutableKeys, parser);
+        log.info("Loaded {} JWT key(s), signing with '{}'", immutableKeys.size(), activeKid);
+    }
+
+    /**
+     * Reloads the keyset when the key file has been modified.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.jwt.reload-interval-ms:60000}")
+    public void reloadIfKeyFileChanged() {
+        if (!hasText(properties.getKeyFile())) {
+            return;
+        }
         try {
-            KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            SECRET_KEY = Base64.getEncoder().encodeToString(sk.getEncoded());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+            long modified = Files.getLastModifiedTime(Path.of(properties.getKeyFile())).toMillis();
+            if (modified != keyFileModified) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to reload JWT keys, keeping the current keyset", e);
         }
     }
 
     /**
-     * Generates a new JWT token for a given username.
-     * The token includes the username as the subject and has a hardcoded expiration time.
+     * Generates a new JWT access token for a given username.
+     * The token includes the username as the subject and expires after {@code bookstore.jwt.access-token-ttl-ms}.
      *
      * @param username The subject of the token (e.g., the user's login name).
      * @return A signed JWT token as a String.
@@ -52,27 +176,30 @@ public class JWTService {
     public String generateToken(String username){
 
         Map<String, Object> claims = new HashMap<>();
+        KeySet current = keySet;
+        long now = System.currentTimeMillis();
 
         return Jwts.builder()
+                .header()
+                .keyId(current.activeKid())
+                .and()
                 .claims()
                 .add(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + 60 * 60 * 30))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + properties.getAccessTokenTtlMs()))
                 .and()
-                .signWith(getKey())
+                .signWith(current.activeKey())
                 .compact();
 
     }
 
     /**
-     * Retrieves the SecretKey from the Base64-encoded string.
-     *
-     * @return The SecretKey object.
+     * @return the lifetime of access tokens in seconds.
      */
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public long getAccessTokenTtlSeconds() {
+        return properties.getAccessTokenTtlMs() / 1000;
     }
 
     /**
@@ -104,10 +231,8 @@ public class JWTService {
      * @param token The JWT token string.
      * @return A Claims object containing all claims from the token.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
+    public Claims extractAllClaims(String token) {
+        return keySet.parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -121,27 +246,29 @@ public class JWTService {
      * @return {@code true} if the token is valid, {@code false} otherwise.
      */
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUserName(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(extractAllClaims(token), userDetails);
     }
 
     /**
-     * Checks if a token has expired.
+     * Validates already parsed claims against the user details, avoiding a second parse.
      *
-     * @param token The JWT token string.
-     * @return {@code true} if the token's expiration date is before the current date, {@code false} otherwise.
+     * @param claims The claims of a token whose signature has been verified.
+     * @param userDetails The UserDetails object of the user to validate against.
+     * @return {@code true} if the token is valid, {@code false} otherwise.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
-    /**
-     * Extracts the expiration date from a JWT token.
-     *
-     * @param token The JWT token string.
-     * @return The expiration date from the token's claims.
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            return KeyGenerator.getInstance("HmacSHA256").generateKey();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
     }
 }
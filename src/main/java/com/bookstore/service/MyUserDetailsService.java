@@ -46,6 +46,11 @@ public class MyUserDetailsService implements UserDetailsService {
         // Find the user by their username in the database
         Users user = userRepository.findByUserName(userName);
 
+        // If no user is found, throw an exception
+        if(user == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+
         // Create a list of authorities based on the user's role.
         // Spring Security expects roles to be in the format "ROLE_..."
         // In this implementation, the prefix is handled by a separate configuration.
@@ -53,12 +58,6 @@ public class MyUserDetailsService implements UserDetailsService {
                 new SimpleGrantedAuthority(user.getUserRole().toUpperCase())
         );
 
-        // If no user is found, throw an exception
-        if(user == null) {
-            System.out.println("User not found");
-            throw new UsernameNotFoundException("User not found");
-        }
-
         // Return a UserPrincipal object, which wraps the Users entity
         // and implements the UserDetails interface.
         return new UserPrincipal(user, authorities);
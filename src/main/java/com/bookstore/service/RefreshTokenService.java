@@ -0,0 +1,127 @@
+package com.bookstore.service;
+
+import com.bookstore.config.JwtProperties;
+import com.bookstore.entity.RefreshToken;
+import com.bookstore.logging.EventLog;
+import com.bookstore.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens.
+ * <p>
+ * A refresh token is a random opaque string; only its SHA-256 hash is stored. Every
+ * refresh marks the presented token as used and issues a new one in the same family.
+ * Presenting a token that was already used means it has leaked (or two clients share
+ * it), so the whole family is revoked and the user has to log in again.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private EventLog eventLog;
+
+    /**
+     * A rotated refresh token together with the user it belongs to.
+     *
+     * @param userName     the owner of the token
+     * @param refreshToken the newly issued refresh token
+     */
+    public record Rotation(String userName, String refreshToken) {
+    }
+
+    /**
+     * Issues the first refresh token of a new family, e.g. at login.
+     *
+     * @param userName the user the token is issued to
+     * @return the refresh token
+     */
+    public String issue(String userName) {
+        return issue(userName, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new one.
+     *
+     * @param refreshToken the token presented by the client
+     * @return the owner and the new refresh token
+     * @throws InvalidRefreshTokenException if the token is unknown, expired or already used
+     */
+    public Rotation rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Missing refresh token");
+        }
+        String tokenHash = hash(refreshToken);
+        RefreshToken stored = refreshTokenRepository.findById(tokenHash)
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+
+        if (stored.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException("Refresh token expired");
+        }
+        if (stored.isUsed() || refreshTokenRepository.markUsed(tokenHash) == 0) {
+            refreshTokenRepository.deleteFamily(stored.getFamilyId());
+            log.warn("Refresh token reuse detected for user {}, revoked token family", stored.getUserName());
+            eventLog.authFailure(stored.getUserName(), "refresh token reuse");
+            throw new InvalidRefreshTokenException("Refresh token already used");
+        }
+        return new Rotation(stored.getUserName(), issue(stored.getUserName(), stored.getFamilyId()));
+    }
+
+    /**
+     * Revokes the family of a refresh token, e.g. on logout. Unknown tokens are ignored.
+     *
+     * @param refreshToken the token presented by the client
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findById(hash(refreshToken))
+                .ifPresent(stored -> refreshTokenRepository.deleteFamily(stored.getFamilyId()));
+    }
+
+    /**
+     * Deletes expired refresh tokens.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.jwt.refresh-token-cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    private String issue(String userName, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant expiresAt = Instant.now().plusMillis(jwtProperties.getRefreshTokenTtlMs());
+        refreshTokenRepository.save(new RefreshToken(hash(token), familyId, userName, expiresAt, false));
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
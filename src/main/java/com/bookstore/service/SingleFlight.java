@@ -0,0 +1,96 @@
+package com.bookstore.service;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Collapses concurrent loads of the same key into one.
+ * <p>
+ * The first caller for a key runs the loader on its own thread; callers that arrive
+ * while it is running wait for that result instead of starting their own load. The
+ * result, or the exception, is handed to every waiter; each waiter gets its own copy
+ * of the result so that callers mutating it do not affect each other. Nothing is kept
+ * once the load finishes, so this is not a cache: the next caller after completion
+ * loads again.
+ *
+ * @param <K> the key type
+ * @param <V> the loaded value type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final long timeoutMs;
+
+    private final UnaryOperator<V> copier;
+
+    /**
+     * @param timeoutMs how long a waiter waits for the in-flight load before giving up
+     * @param copier    copies a loaded value for a waiter; must accept {@code null}
+     */
+    public SingleFlight(long timeoutMs, UnaryOperator<V> copier) {
+        this.timeoutMs = timeoutMs;
+        this.copier = copier;
+    }
+
+    /**
+     * Loads the value for the key, sharing the load with any concurrent caller for the same key.
+     *
+     * @param key    the key being loaded
+     * @param loader loads the value; only called by the first caller of a burst
+     * @return the loaded value, or a copy of it for callers that waited for another caller's load
+     * @throws QueryTimeoutException if waiting for another caller's load takes longer than the timeout
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(key, existing);
+        }
+
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Number of keys currently being loaded.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> call) {
+        try {
+            return copier.apply(call.get(timeoutMs, TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Timed out after " + timeoutMs + " ms waiting for the load of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for the load of " + key);
+        }
+    }
+}
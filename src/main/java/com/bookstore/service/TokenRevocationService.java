@@ -0,0 +1,135 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.RevokedToken;
+import com.bookstore.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of revoked JWTs by their {@code jti} claim.
+ * <p>
+ * The database table is the source of truth. Each node holds the unexpired revocations
+ * in memory: a Bloom filter answers "definitely not revoked" for almost every request
+ * without touching storage, and only on a Bloom hit is the exact set consulted.
+ * Revocations made on other nodes are pulled in every {@code sync-interval-ms}, which
+ * bounds how long a token revoked elsewhere stays usable here. Entries are dropped once
+ * the token has expired, and the Bloom filter is rebuilt from the remaining set.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    /**
+     * Overlap when pulling revocations from other nodes, to allow for clock skew and slow commits.
+     */
+    private static final long SYNC_OVERLAP_MS = 30_000;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${bookstore.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${bookstore.revocation.false-positive-probability:0.001}")
+    private double falsePositiveProbability;
+
+    /**
+     * Exact set of unexpired revocations: jti to expiry in epoch milliseconds.
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    /**
+     * Loads the unexpired revocations from the database.
+     */
+    @PostConstruct
+    public void load() {
+        revoked.clear();
+        bloomFilter = newBloomFilter(0);
+        sync();
+    }
+
+    /**
+     * Revokes a token until it expires.
+     *
+     * @param jti       the token id
+     * @param expiresAt when the token expires
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt, Instant.now()));
+        remember(jti, expiresAt.toEpochMilli());
+    }
+
+    /**
+     * Checks whether a token has been revoked.
+     *
+     * @param jti the token id; tokens without one cannot be revoked
+     * @return {@code true} if the token has been revoked and has not expired
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Pulls revocations made on other nodes, drops expired ones and rebuilds the Bloom
+     * filter when entries were dropped or there are more than it was sized for. A rebuilt
+     * filter has room for twice the current entries, so growth does not rebuild it on
+     * every sync.
+     */
+    @Scheduled(fixedDelayString = "${bookstore.revocation.sync-interval-ms:10000}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minusMillis(SYNC_OVERLAP_MS);
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now);
+        for (RevokedToken token : recent) {
+            remember(token.getJti(), token.getExpiresAt().toEpochMilli());
+        }
+        lastSync = now;
+
+        long nowMillis = now.toEpochMilli();
+        boolean purged = revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+        if (purged || revoked.size() > bloomFilter.capacity()) {
+            synchronized (this) {
+                BloomFilter rebuilt = newBloomFilter(revoked.size());
+                revoked.keySet().forEach(rebuilt::add);
+                bloomFilter = rebuilt;
+            }
+        }
+        if (purged) {
+            int deleted = revokedTokenRepository.deleteExpired(now);
+            log.debug("Purged {} expired token revocations", deleted);
+        }
+    }
+
+    /**
+     * @return how many revocations the current Bloom filter is sized for
+     */
+    long bloomFilterCapacity() {
+        return bloomFilter.capacity();
+    }
+
+    private synchronized void remember(String jti, long expiresAt) {
+        revoked.put(jti, expiresAt);
+        bloomFilter.add(jti);
+    }
+
+    private BloomFilter newBloomFilter(int entries) {
+        return new BloomFilter(Math.max(expectedEntries, 2L * entries), falsePositiveProbability);
+    }
+}
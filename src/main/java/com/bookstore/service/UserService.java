@@ -1,11 +1,17 @@
 package com.bookstore.service;
 
+import com.bookstore.logging.EventLog;
+import com.bookstore.model.TokenResponse;
 import com.bookstore.model.Users;
 import com.bookstore.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -24,6 +30,24 @@ public class UserService {
     @Autowired
     private JWTService jwtService;
 
+    /**
+     * Service for revoking tokens on logout.
+     */
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    /**
+     * Service for issuing and rotating refresh tokens.
+     */
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    /**
+     * Records failed login attempts.
+     */
+    @Autowired
+    private EventLog eventLog;
+
     /**
      * The Spring Security AuthenticationManager, used to authenticate user credentials.
      */
@@ -48,18 +72,69 @@ public class UserService {
     }
 
     /**
-     * Verifies a user's credentials and generates a JWT token upon successful authentication.
+     * Verifies a user's credentials and issues an access token and a refresh token upon successful authentication.
+     * Failed attempts are recorded in the event log before the exception is rethrown.
      *
      * @param user The Users object containing the username and password for verification.
-     * @return A String containing the JWT token if authentication is successful, or "fail" otherwise.
+     * @return The access and refresh tokens.
+     * @throws AuthenticationException if authentication fails.
      */
-    public String verify(Users user) {
-        Authentication authentication =
-                authManager.authenticate(new UsernamePasswordAuthenticationToken(user.getUserName(), user.getUserPassword()));
+    public TokenResponse verify(Users user) {
+        Authentication authentication;
+        try {
+            authentication = authManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(user.getUserName(), user.getUserPassword()));
+        } catch (AuthenticationException e) {
+            eventLog.authFailure(user.getUserName(), e.getClass().getSimpleName());
+            throw e;
+        }
 
         if (authentication.isAuthenticated()) {
-            return "Token: " + jwtService.generateToken(user.getUserName());
+            return issueTokens(user.getUserName(), refreshTokenService.issue(user.getUserName()));
         }
-        return "fail";
+        throw new BadCredentialsException("fail");
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * This only costs an HMAC signature and a few indexed lookups, no password hashing.
+     *
+     * @param refreshToken The refresh token issued at login or by the previous refresh.
+     * @return The new access and refresh tokens.
+     * @throws InvalidRefreshTokenException if the refresh token is invalid or has already been used.
+     */
+    public TokenResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        return issueTokens(rotation.userName(), rotation.refreshToken());
+    }
+
+    /**
+     * Logs a user out by revoking their access token until it would have expired,
+     * and the refresh token family if one is given.
+     *
+     * @param token The JWT access token to revoke, may be {@code null}.
+     * @param refreshToken The refresh token to revoke, may be {@code null}.
+     * @return A confirmation message.
+     * @throws InvalidAccessTokenException if the access token cannot be parsed.
+     */
+    public String logout(String token, String refreshToken) {
+        if (token != null) {
+            Claims claims;
+            try {
+                claims = jwtService.extractAllClaims(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                throw new InvalidAccessTokenException("Access token cannot be parsed");
+            }
+            if (claims.getId() != null) {
+                revocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+            }
+        }
+        refreshTokenService.revoke(refreshToken);
+        return "Logged out successfully";
+    }
+
+    private TokenResponse issueTokens(String userName, String refreshToken) {
+        return new TokenResponse(jwtService.generateToken(userName), refreshToken, "Bearer",
+                jwtService.getAccessTokenTtlSeconds());
     }
 }
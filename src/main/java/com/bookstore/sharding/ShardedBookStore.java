@@ -0,0 +1,621 @@
+package com.bookstore.sharding;
+
+import com.bookstore.config.ShardingProperties;
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.model.BulkBookRequest;
+import com.bookstore.repository.BookStore;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link BookStore} spread over the datasources listed under {@code bookstore.sharding.shards}.
+ * <p>
+ * Ids come from a {@link SnowflakeIdGenerator} and each book lives on shard
+ * {@code floorMod(mix(bookId), shards)}, so lookups, updates and deletes by id touch one
+ * shard. Everything else is sent to all shards in parallel and the per-shard results,
+ * each already in id order, are merged. A shard that does not answer within
+ * {@code shard-timeout-ms} fails the whole read with a {@link QueryTimeoutException}
+ * rather than returning a partial result.
+ * <p>
+ * Each shard commits on its own. {@link #saveAll(List)} reverts the shards that have
+ * committed when a later one fails; other multi-shard writes are not atomic.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "bookstore.sharding.enabled", havingValue = "true")
+public class ShardedBookStore implements BookStore {
+
+    private static final String COLUMNS = "book_id, book_title, book_author, book_genre, book_price, book_updated_at";
+
+    private static final RowMapper<Book> BOOK_MAPPER = (rs, rowNum) -> new Book(
+            rs.getLong("book_id"),
+            rs.getString("book_title"),
+            rs.getString("book_author"),
+            rs.getString("book_genre"),
+            rs.getObject("book_price", Double.class),
+            rs.getObject("book_updated_at", Long.class));
+
+    private static final Comparator<Book> BY_ID = Comparator.comparing(Book::getBookId);
+
+    @Autowired
+    private ShardingProperties properties;
+
+    private final List<Shard> shards = new ArrayList<>();
+
+    private SnowflakeIdGenerator idGenerator;
+
+    private ExecutorService executor;
+
+    /**
+     * One datasource with its template and transaction boundary.
+     */
+    private record Shard(int index, HikariDataSource dataSource, JdbcTemplate jdbc, TransactionTemplate transactions) {
+    }
+
+    /**
+     * The books a bulk change locked on one shard, what they became and how many rows it changed.
+     */
+    private record BulkWrite(List<Book> before, List<Book> after, int affected) {
+    }
+
+    /**
+     * A batch committed on one shard, with the rows it replaced and the ids it inserted.
+     */
+    private record ShardWrite(Shard shard, List<Book> previous, List<Long> insertedIds) {
+    }
+
+    /**
+     * Opens a pool per shard and creates the book table where it is missing.
+     */
+    @PostConstruct
+    public void init() {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("bookstore.sharding.enabled is set but no shards are configured");
+        }
+        idGenerator = new SnowflakeIdGenerator(properties.getWorkerId());
+        int queryTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(properties.getShardTimeoutMs() + 999));
+
+        for (ShardingProperties.Shard config : properties.getShards()) {
+            int index = shards.size();
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("book-shard-" + index);
+            dataSource.setJdbcUrl(config.getUrl());
+            dataSource.setUsername(config.getUsername());
+            dataSource.setPassword(config.getPassword());
+            dataSource.setMaximumPoolSize(properties.getMaxPoolSize());
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.setQueryTimeout(queryTimeoutSeconds);
+            jdbc.execute("create table if not exists book (book_id bigint primary key, book_title varchar(255), "
+                    + "book_author varchar(255), book_genre varchar(255), book_price double precision, "
+                    + "book_updated_at bigint)");
+            jdbc.execute("create index if not exists book_updated_at_idx on book (book_updated_at)");
+            shards.add(new Shard(index, dataSource, jdbc,
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource))));
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(shards.size() * properties.getMaxPoolSize(), runnable -> {
+            Thread thread = new Thread(runnable, "book-shard-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Book storage sharded across {} datasources", shards.size());
+    }
+
+    /**
+     * Stops the query threads and closes the shard pools.
+     */
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        shards.forEach(shard -> shard.dataSource().close());
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return mergeById(scatter(shard -> shard.jdbc().query(
+                "select " + COLUMNS + " from book order by book_id", BOOK_MAPPER)), Integer.MAX_VALUE, BY_ID);
+    }
+
+    @Override
+    public List<Book> findLatest(int limit) {
+        return mergeById(scatter(shard -> shard.jdbc().query(
+                "select " + COLUMNS + " from book order by book_id desc limit ?", BOOK_MAPPER, limit)),
+                limit, BY_ID.reversed());
+    }
+
+    @Override
+    public Optional<Book> findById(Long bookId) {
+        return shardFor(bookId).jdbc().query(
+                "select " + COLUMNS + " from book where book_id = ?", BOOK_MAPPER, bookId).stream().findFirst();
+    }
+
+    @Override
+    public List<Book> findAfter(Long lastId, int limit) {
+        return mergeById(scatter(shard -> shard.jdbc().query(
+                "select " + COLUMNS + " from book where book_id > ? order by book_id limit ?", BOOK_MAPPER, lastId, limit)),
+                limit, BY_ID);
+    }
+
+    @Override
+    public List<Book> findUpdatedSince(long since) {
+        return mergeById(scatter(shard -> shard.jdbc().query(
+                "select " + COLUMNS + " from book where book_updated_at > ? order by book_id", BOOK_MAPPER, since)),
+                Integer.MAX_VALUE, BY_ID);
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        List<Long> ids = new ArrayList<>();
+        scatter(shard -> shard.jdbc().queryForList("select book_id from book", Long.class)).forEach(ids::addAll);
+        ids.sort(null);
+        return ids;
+    }
+
+    @Override
+    public Book findByTitle(String title) {
+        return findFirstMatching("book_title", title);
+    }
+
+    @Override
+    public Book findByAuthor(String author) {
+        return findFirstMatching("book_author", author);
+    }
+
+    @Override
+    public Book findByGenre(String genre) {
+        return findFirstMatching("book_genre", genre);
+    }
+
+    @Override
+    public List<Book> filter(BookFilter filter) {
+        List<Object> args = new ArrayList<>();
+        String query = "select " + COLUMNS + " from book where " + criteria(filter, args) + " order by book_id";
+        Object[] params = args.toArray();
+        return mergeById(scatter(shard -> shard.jdbc().query(query, BOOK_MAPPER, params)), Integer.MAX_VALUE, BY_ID);
+    }
+
+    @Override
+    public List<Long> findMatchingIds(BookFilter filter, Long afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        String query = "select book_id from book where book_id > ? and " + criteria(filter, args)
+                + " order by book_id limit ?";
+        args.add(limit);
+        Object[] params = args.toArray();
+        List<Long> ids = new ArrayList<>();
+        scatter(shard -> shard.jdbc().queryForList(query, Long.class, params)).forEach(ids::addAll);
+        ids.sort(null);
+        return ids.size() > limit ? new ArrayList<>(ids.subList(0, limit)) : ids;
+    }
+
+    /**
+     * Applies the change shard by shard. Each shard's part commits on its own and is passed
+     * to {@code committed} straight away, so a failing shard leaves the shards before it
+     * changed and reported, and the shards after it untouched.
+     */
+    @Override
+    public int applyBulkChange(List<Long> ids, BookFilter filter, BulkBookRequest change,
+                               BiConsumer<List<Book>, List<Book>> committed) {
+        List<List<Long>> idsByShard = groupByShard(ids);
+        int affected = 0;
+        for (Shard shard : shards) {
+            List<Long> shardIds = idsByShard.get(shard.index());
+            if (shardIds.isEmpty()) {
+                continue;
+            }
+            List<Object> args = new ArrayList<>(shardIds);
+            String query = "select " + COLUMNS + " from book where book_id in (" + placeholders(shardIds.size())
+                    + ") and " + criteria(filter, args) + " order by book_id for update";
+            BulkWrite write = shard.transactions().execute(status -> {
+                List<Book> before = shard.jdbc().query(query, BOOK_MAPPER, args.toArray());
+                if (before.isEmpty()) {
+                    return null;
+                }
+                List<Long> matched = before.stream().map(Book::getBookId).toList();
+                String inMatched = " where book_id in (" + placeholders(matched.size()) + ")";
+                List<Object> params = new ArrayList<>();
+                String statement = switch (change.operation()) {
+                    case SET_PRICE -> {
+                        params.add(change.price());
+                        yield "update book set book_price = ?, book_updated_at = ?";
+                    }
+                    case ADJUST_PRICE_PERCENT -> {
+                        params.add(change.priceFactor());
+                        yield "update book set book_price = round(book_price * ?, 2), book_updated_at = ?";
+                    }
+                    case SET_GENRE -> {
+                        params.add(change.genre());
+                        yield "update book set book_genre = ?, book_updated_at = ?";
+                    }
+                    case DELETE -> "delete from book";
+                };
+                if (change.operation() != BulkBookRequest.Operation.DELETE) {
+                    params.add(System.currentTimeMillis());
+                }
+                params.addAll(matched);
+                int rows = shard.jdbc().update(statement + inMatched, params.toArray());
+                List<Book> after = change.operation() == BulkBookRequest.Operation.DELETE ? List.of()
+                        : shard.jdbc().query("select " + COLUMNS + " from book" + inMatched + " order by book_id",
+                        BOOK_MAPPER, matched.toArray());
+                return new BulkWrite(before, after, rows);
+            });
+            if (write != null) {
+                affected += write.affected();
+                committed.accept(write.before(), write.after());
+            }
+        }
+        return affected;
+    }
+
+    @Override
+    public Book save(Book book) {
+        book.touch();
+        if (book.getBookId() == null) {
+            book.setBookId(idGenerator.nextId());
+            insert(shardFor(book.getBookId()).jdbc(), book);
+            return book;
+        }
+        JdbcTemplate jdbc = shardFor(book.getBookId()).jdbc();
+        int updated = jdbc.update("update book set book_title = ?, book_author = ?, book_genre = ?, book_price = ?, "
+                        + "book_updated_at = ? where book_id = ?", book.getBookTitle(), book.getBookAuthor(),
+                book.getBookGenre(), book.getBookPrice(), book.getBookUpdatedAt(), book.getBookId());
+        if (updated == 0) {
+            insert(jdbc, book);
+        }
+        return book;
+    }
+
+    /**
+     * Inserts or updates the books by id with one transaction per shard. New books get their
+     * ids before anything is written and keep them if the call fails, so saving the same
+     * books again updates whatever was written instead of duplicating it.
+     * <p>
+     * If a shard fails, the shards that have already committed are restored: rows this call
+     * inserted are deleted and rows it updated get their previous contents back. The call
+     * therefore either stores every book or, unless the restore itself fails, none of them.
+     *
+     * @param books the books to store
+     * @return the stored books, in the same order as given
+     */
+    @Override
+    public List<Book> saveAll(List<Book> books) {
+        List<List<Book>> booksByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            booksByShard.add(new ArrayList<>());
+        }
+        for (Book book : books) {
+            if (book.getBookId() == null) {
+                book.setBookId(idGenerator.nextId());
+            }
+            book.touch();
+            booksByShard.get(shardFor(book.getBookId()).index()).add(book);
+        }
+
+        List<ShardWrite> committed = new ArrayList<>();
+        try {
+            for (Shard shard : shards) {
+                List<Book> batch = booksByShard.get(shard.index());
+                if (!batch.isEmpty()) {
+                    committed.add(shard.transactions().execute(status -> upsert(shard, batch)));
+                }
+            }
+        } catch (RuntimeException e) {
+            committed.forEach(this::undo);
+            throw e;
+        }
+        return books;
+    }
+
+    /**
+     * Inserts new books with one batch per shard. Unlike {@link #saveAll(List)}, a failing
+     * shard leaves the other shards' rows in place.
+     *
+     * @param books books without ids
+     */
+    @Override
+    public void insertAll(List<Book> books) {
+        List<List<Book>> booksByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            booksByShard.add(new ArrayList<>());
+        }
+        for (Book book : books) {
+            book.setBookId(idGenerator.nextId());
+            book.touch();
+            booksByShard.get(shardFor(book.getBookId()).index()).add(book);
+        }
+        for (Shard shard : shards) {
+            List<Book> batch = booksByShard.get(shard.index());
+            if (!batch.isEmpty()) {
+                shard.transactions().executeWithoutResult(status -> insertBatch(shard.jdbc(), batch));
+            }
+        }
+    }
+
+    @Override
+    public Optional<Update> update(Long bookId, Consumer<Book> change) {
+        Shard shard = shardFor(bookId);
+        return shard.transactions().execute(status -> lockById(shard, bookId).map(book -> {
+            Book previous = new Book(book.getBookId(), book.getBookTitle(), book.getBookAuthor(),
+                    book.getBookGenre(), book.getBookPrice(), book.getBookUpdatedAt());
+            change.accept(book);
+            book.touch();
+            updateBatch(shard.jdbc(), List.of(book));
+            return new Update(previous, book);
+        }));
+    }
+
+    @Override
+    public Optional<Book> deleteById(Long bookId) {
+        Shard shard = shardFor(bookId);
+        return shard.transactions().execute(status -> lockById(shard, bookId).map(book -> {
+            shard.jdbc().update("delete from book where book_id = ?", bookId);
+            return book;
+        }));
+    }
+
+    /**
+     * @return the number of configured shards
+     */
+    public int shardCount() {
+        return shards.size();
+    }
+
+    private Shard shardFor(long bookId) {
+        return shards.get(Math.floorMod(mix(bookId), shards.size()));
+    }
+
+    /**
+     * Murmur3 finalizer, so that consecutive ids spread evenly over the shards.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Locks the rows the batch already has on the shard, updates those and inserts the rest.
+     * Runs inside the shard's transaction.
+     *
+     * @return what {@link #undo(ShardWrite)} needs to revert the batch
+     */
+    private ShardWrite upsert(Shard shard, List<Book> batch) {
+        List<Long> ids = batch.stream().map(Book::getBookId).toList();
+        List<Book> previous = shard.jdbc().query("select " + COLUMNS + " from book where book_id in ("
+                + placeholders(ids.size()) + ") for update", BOOK_MAPPER, ids.toArray());
+        Set<Long> existing = new HashSet<>();
+        previous.forEach(book -> existing.add(book.getBookId()));
+
+        List<Book> updates = batch.stream().filter(book -> existing.contains(book.getBookId())).toList();
+        List<Book> inserts = batch.stream().filter(book -> !existing.contains(book.getBookId())).toList();
+        if (!updates.isEmpty()) {
+            updateBatch(shard.jdbc(), updates);
+        }
+        if (!inserts.isEmpty()) {
+            insertBatch(shard.jdbc(), inserts);
+        }
+        return new ShardWrite(shard, previous, inserts.stream().map(Book::getBookId).toList());
+    }
+
+    /**
+     * Reverts a committed {@link #upsert(Shard, List)}. A failure is logged rather than thrown,
+     * so that the original error reaches the caller.
+     */
+    private void undo(ShardWrite write) {
+        Shard shard = write.shard();
+        try {
+            shard.transactions().executeWithoutResult(status -> {
+                if (!write.insertedIds().isEmpty()) {
+                    shard.jdbc().update("delete from book where book_id in (" + placeholders(write.insertedIds().size())
+                            + ")", write.insertedIds().toArray());
+                }
+                if (!write.previous().isEmpty()) {
+                    updateBatch(shard.jdbc(), write.previous());
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not revert {} inserted and {} updated books on shard {}", write.insertedIds().size(),
+                    write.previous().size(), shard.index(), e);
+        }
+    }
+
+    private static Optional<Book> lockById(Shard shard, long bookId) {
+        return shard.jdbc().query("select " + COLUMNS + " from book where book_id = ? for update", BOOK_MAPPER, bookId)
+                .stream().findFirst();
+    }
+
+    private static void insertBatch(JdbcTemplate jdbc, List<Book> books) {
+        jdbc.batchUpdate("insert into book (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?)", books, books.size(),
+                (ps, book) -> {
+                    ps.setLong(1, book.getBookId());
+                    ps.setString(2, book.getBookTitle());
+                    ps.setString(3, book.getBookAuthor());
+                    ps.setString(4, book.getBookGenre());
+                    ps.setObject(5, book.getBookPrice(), Types.DOUBLE);
+                    ps.setObject(6, book.getBookUpdatedAt(), Types.BIGINT);
+                });
+    }
+
+    private static void updateBatch(JdbcTemplate jdbc, List<Book> books) {
+        jdbc.batchUpdate("update book set book_title = ?, book_author = ?, book_genre = ?, book_price = ?, "
+                + "book_updated_at = ? where book_id = ?", books, books.size(), (ps, book) -> {
+                    ps.setString(1, book.getBookTitle());
+                    ps.setString(2, book.getBookAuthor());
+                    ps.setString(3, book.getBookGenre());
+                    ps.setObject(4, book.getBookPrice(), Types.DOUBLE);
+                    ps.setObject(5, book.getBookUpdatedAt(), Types.BIGINT);
+                    ps.setLong(6, book.getBookId());
+                });
+    }
+
+    private static void insert(JdbcTemplate jdbc, Book book) {
+        jdbc.update("insert into book (" + COLUMNS + ") values (?, ?, ?, ?, ?, ?)", book.getBookId(),
+                book.getBookTitle(), book.getBookAuthor(), book.getBookGenre(), book.getBookPrice(),
+                book.getBookUpdatedAt());
+    }
+
+    /**
+     * @return the ids split by the shard that holds them, indexed by shard
+     */
+    private List<List<Long>> groupByShard(List<Long> ids) {
+        List<List<Long>> idsByShard = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            idsByShard.get(shardFor(id).index()).add(id);
+        }
+        return idsByShard;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Builds the where clause for the filter and appends its parameters to {@code args}.
+     */
+    private static String criteria(BookFilter filter, List<Object> args) {
+        StringBuilder sql = new StringBuilder("1 = 1");
+        if (filter.genre() != null) {
+            sql.append(" and lower(book_genre) = lower(?)");
+            args.add(filter.genre());
+        }
+        if (filter.author() != null) {
+            sql.append(" and lower(book_author) = lower(?)");
+            args.add(filter.author());
+        }
+        if (filter.minPrice() != null) {
+            sql.append(" and book_price >= ?");
+            args.add(filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            sql.append(" and book_price <= ?");
+            args.add(filter.maxPrice());
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Returns the lowest-id book whose column matches the value, ignoring case.
+     */
+    private Book findFirstMatching(String column, String value) {
+        String sql = "select " + COLUMNS + " from book where lower(" + column + ") = lower(?) order by book_id limit 1";
+        List<Book> matches = mergeById(scatter(shard -> shard.jdbc().query(sql, BOOK_MAPPER, value)), 1, BY_ID);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Runs the query on every shard in parallel and waits for all of them.
+     *
+     * @param query the per-shard query
+     * @return the results, one list per shard
+     * @throws QueryTimeoutException if a shard does not answer in time
+     */
+    private <T> List<List<T>> scatter(Function<Shard, List<T>> query) {
+        List<Future<List<T>>> futures = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            futures.add(executor.submit(() -> query.apply(shard)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getShardTimeoutMs());
+        List<List<T>> results = new ArrayList<>(shards.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    throw new QueryTimeoutException("Shard " + i + " did not answer within "
+                            + properties.getShardTimeoutMs() + " ms");
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                    }
+                    throw new IllegalStateException("Query on shard " + i + " failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new QueryTimeoutException("Interrupted while waiting for shard " + i);
+                }
+            }
+        } finally {
+            if (results.size() < futures.size()) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * K-way merge of lists that are each sorted by the comparator.
+     *
+     * @param parts the sorted lists
+     * @param limit the maximum number of books to return
+     * @param order the order of every list and of the result
+     * @return the merged books
+     */
+    static List<Book> mergeById(List<List<Book>> parts, int limit, Comparator<Book> order) {
+        record Cursor(List<Book> books, int position) {
+            Book head() {
+                return books.get(position);
+            }
+        }
+
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(1, parts.size()),
+                (a, b) -> order.compare(a.head(), b.head()));
+        int total = 0;
+        for (List<Book> part : parts) {
+            if (!part.isEmpty()) {
+                heads.add(new Cursor(part, 0));
+                total += part.size();
+            }
+        }
+
+        List<Book> merged = new ArrayList<>(Math.min(total, limit));
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.position() + 1 < cursor.books().size()) {
+                heads.add(new Cursor(cursor.books(), cursor.position() + 1));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,66 @@
+package com.bookstore.sharding;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates unique, roughly time-ordered 63-bit ids without a database round trip:
+ * 41 bits of milliseconds since 2024-01-01, 10 bits of worker id and a 12-bit
+ * sequence. Ids from one generator are strictly increasing; when more than 4096
+ * ids are needed in one millisecond the generator borrows from the next one
+ * instead of waiting.
+ */
+public class SnowflakeIdGenerator {
+
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final int WORKER_BITS = 10;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerId;
+
+    private final LongSupplier clock;
+
+    /**
+     * Last issued timestamp and sequence, packed as {@code millis << 12 | sequence}.
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * @param workerId the id of this instance, unique among instances sharing the shards
+     */
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    /**
+     * @param workerId the id of this instance
+     * @param clock    the current time in epoch milliseconds
+     */
+    SnowflakeIdGenerator(int workerId, LongSupplier clock) {
+        if (workerId < 0 || workerId >= 1 << WORKER_BITS) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + ((1 << WORKER_BITS) - 1));
+        }
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the next id
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = Math.max(previous + 1, now);
+        } while (!last.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        return millis << (WORKER_BITS + SEQUENCE_BITS) | workerId << SEQUENCE_BITS | next & SEQUENCE_MASK;
+    }
+}
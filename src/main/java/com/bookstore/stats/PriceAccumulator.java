@@ -0,0 +1,80 @@
+package com.bookstore.stats;
+
+import com.bookstore.model.PriceSummary;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Running price statistics of one group. Prices are kept as a sorted multiset so the
+ * minimum and maximum stay correct when prices are removed, and the sum is exact so
+ * that any number of additions and removals leaves no rounding drift.
+ */
+final class PriceAccumulator {
+
+    private final TreeMap<Double, Integer> prices = new TreeMap<>();
+
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    private long count;
+
+    synchronized void add(double price) {
+        prices.merge(price, 1, Integer::sum);
+        sum = sum.add(new BigDecimal(price));
+        count++;
+    }
+
+    /**
+     * Removes one occurrence of a price. Prices that were never added are ignored.
+     */
+    synchronized void remove(double price) {
+        Integer occurrences = prices.get(price);
+        if (occurrences == null) {
+            return;
+        }
+        if (occurrences == 1) {
+            prices.remove(price);
+        } else {
+            prices.put(price, occurrences - 1);
+        }
+        sum = sum.subtract(new BigDecimal(price));
+        count--;
+    }
+
+    synchronized void merge(PriceAccumulator other) {
+        for (Map.Entry<Double, Integer> entry : other.prices.entrySet()) {
+            prices.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        sum = sum.add(other.sum);
+        count += other.count;
+    }
+
+    synchronized boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return the statistics, or {@code null} if the group holds no prices
+     */
+    synchronized PriceSummary summary(String group) {
+        if (count == 0) {
+            return null;
+        }
+        return new PriceSummary(group, count, prices.firstKey(), prices.lastKey(), sum.doubleValue() / count);
+    }
+
+    /**
+     * @return whether both accumulators hold exactly the same prices
+     */
+    boolean sameAs(PriceAccumulator other) {
+        PriceSummary mine = summary("");
+        PriceSummary theirs = other.summary("");
+        return Objects.equals(mine, theirs) && exactSum().compareTo(other.exactSum()) == 0;
+    }
+
+    private synchronized BigDecimal exactSum() {
+        return sum;
+    }
+}
@@ -0,0 +1,414 @@
+package com.bookstore.stats;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.PriceStatisticsReport;
+import com.bookstore.model.PriceSummary;
+import com.bookstore.repository.BookStore;
+import com.bookstore.service.BookChangeListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Price statistics (count, min, max, average) per genre and per author, kept up to date
+ * from the {@link BookChangeListener} callbacks so that reading them costs O(groups)
+ * rather than a pass over the catalog.
+ * <p>
+ * An update removes the previous price from the previous genre and author and adds the
+ * new one, so moving a book between groups or repricing it is accounted for exactly.
+ * The statistics are computed from scratch at startup and after bulk changes; the same
+ * recompute can be run on demand to verify (and optionally repair) the maintained values.
+ * <p>
+ * Writes that arrive while a recompute runs are collected per book. The scan may or may not
+ * have seen such a book, and in which state, so once it finishes each of these books is
+ * reconciled: the state the scan counted is removed and the latest state is added. To know
+ * what the scan counted, it keeps the ids it read and the books written shortly before it
+ * started; any other book it read is still in the state the first queued write replaced.
+ * Groups are keyed by their exact value; books without a price, genre or author are not
+ * counted in the corresponding statistics.
+ */
+@Slf4j
+@Component
+public class PriceStatistics implements BookChangeListener {
+
+    private static final int PAGE_SIZE = 10_000;
+
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    @Autowired
+    private BookStore bookStore;
+
+    @Value("${bookstore.statistics.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * How long before a recompute starts a write may have been stamped and still be
+     * notified only after it started, e.g. a long transaction or a bulk chunk.
+     */
+    @Value("${bookstore.statistics.recompute-margin-ms:5000}")
+    private long recomputeMarginMs;
+
+    /**
+     * Guards writes and the loading state. Readers never take it.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Books written while a recompute is running, reconciled with its result.
+     */
+    private final Map<Long, PendingChange> pendingChanges = new LinkedHashMap<>();
+
+    private volatile Groups groups = new Groups(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    private volatile boolean ready;
+
+    private boolean loading;
+
+    /**
+     * Set when the catalog changed in bulk during a recompute, which then runs once more.
+     */
+    private boolean rerunRequested;
+
+    /**
+     * The net effect of the writes to one book during a recompute.
+     *
+     * @param previous the book before the first write, or {@code null} if it was created
+     * @param current  the book after the last write, or {@code null} if it was deleted
+     */
+    private record PendingChange(Book previous, Book current) {
+    }
+
+    /**
+     * The result of a scan of the catalog.
+     *
+     * @param groups the statistics of every book read
+     * @param ids    the ids read, in ascending order
+     * @param recent the books read that were written after the scan's watermark
+     */
+    private record Scan(Groups groups, long[] ids, Map<Long, Book> recent) {
+    }
+
+    /**
+     * Accumulators per genre and per author.
+     */
+    private record Groups(Map<String, PriceAccumulator> genres, Map<String, PriceAccumulator> authors) {
+
+        void add(Book book) {
+            if (book.getBookPrice() != null) {
+                add(genres, book.getBookGenre(), book.getBookPrice());
+                add(authors, book.getBookAuthor(), book.getBookPrice());
+            }
+        }
+
+        void remove(Book book) {
+            if (book.getBookPrice() != null) {
+                remove(genres, book.getBookGenre(), book.getBookPrice());
+                remove(authors, book.getBookAuthor(), book.getBookPrice());
+            }
+        }
+
+        void merge(Groups other) {
+            other.genres().forEach((group, accumulator) ->
+                    genres.computeIfAbsent(group, key -> new PriceAccumulator()).merge(accumulator));
+            other.authors().forEach((group, accumulator) ->
+                    authors.computeIfAbsent(group, key -> new PriceAccumulator()).merge(accumulator));
+        }
+
+        private static void add(Map<String, PriceAccumulator> map, String group, double price) {
+            if (group != null) {
+                map.computeIfAbsent(group, key -> new PriceAccumulator()).add(price);
+            }
+        }
+
+        private static void remove(Map<String, PriceAccumulator> map, String group, double price) {
+            if (group != null) {
+                map.computeIfPresent(group, (key, accumulator) -> {
+                    accumulator.remove(price);
+                    return accumulator.isEmpty() ? null : accumulator;
+                });
+            }
+        }
+    }
+
+    /**
+     * Computes the statistics once the application context is up.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void load() {
+        if (enabled) {
+            verify(true);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return the statistics of every genre, ordered by genre
+     */
+    public List<PriceSummary> byGenre() {
+        return summaries(groups.genres());
+    }
+
+    /**
+     * @return the statistics of every author, ordered by author
+     */
+    public List<PriceSummary> byAuthor() {
+        return summaries(groups.authors());
+    }
+
+    /**
+     * Recomputes the statistics from the whole catalog and compares them with the
+     * maintained ones. Without {@code repair}, writes made while the recompute runs can
+     * show up as mismatches; with it, such writes are applied to both sides before they
+     * are compared, and the recomputed statistics replace the maintained ones.
+     *
+     * @param repair whether to replace the maintained statistics with the recomputed ones
+     * @return the groups that differed
+     * @throws IllegalStateException if {@code repair} is set and a recompute is already running
+     */
+    public PriceStatisticsReport verify(boolean repair) {
+        if (!repair) {
+            long started = System.currentTimeMillis();
+            Scan scan = recompute(Long.MAX_VALUE);
+            return report(groups, scan.groups(), false, System.currentTimeMillis() - started);
+        }
+        synchronized (writeLock) {
+            if (loading) {
+                throw new IllegalStateException("A recompute is already running");
+            }
+            loading = true;
+        }
+        return recomputeAndRepair();
+    }
+
+    @Override
+    public void bookSaved(Book book) {
+        record(null, copyOf(book));
+    }
+
+    @Override
+    public void bookUpdated(Book previous, Book current) {
+        record(copyOf(previous), copyOf(current));
+    }
+
+    @Override
+    public void bookDeleted(Book book) {
+        record(copyOf(book), null);
+    }
+
+    /**
+     * Recomputes the statistics, or, if a recompute is already running, has it run once
+     * more when it finishes so that it covers the whole bulk change.
+     */
+    @Override
+    public void catalogChanged() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (loading) {
+                rerunRequested = true;
+                return;
+            }
+            loading = true;
+        }
+        try {
+            recomputeAndRepair();
+        } catch (RuntimeException e) {
+            log.error("Price statistics not recomputed after a bulk change", e);
+        }
+    }
+
+    /**
+     * Recomputes and installs the statistics, again for as long as reruns are requested.
+     * Must be called with {@code loading} set; clears it when done.
+     */
+    private PriceStatisticsReport recomputeAndRepair() {
+        while (true) {
+            PriceStatisticsReport report;
+            try {
+                report = repairOnce();
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    loading = false;
+                    rerunRequested = false;
+                    pendingChanges.clear();
+                }
+                throw e;
+            }
+            synchronized (writeLock) {
+                if (!rerunRequested) {
+                    loading = false;
+                    return report;
+                }
+                rerunRequested = false;
+            }
+        }
+    }
+
+    private PriceStatisticsReport repairOnce() {
+        long started = System.currentTimeMillis();
+        Scan scan = recompute(started - recomputeMarginMs);
+        Groups recomputed = scan.groups();
+
+        synchronized (writeLock) {
+            Groups maintained = groups;
+            pendingChanges.forEach((bookId, change) -> {
+                apply(maintained, change.previous(), change.current());
+                Book counted = scan.recent().get(bookId);
+                if (counted == null && change.previous() != null && Arrays.binarySearch(scan.ids(), bookId) >= 0) {
+                    counted = change.previous();
+                }
+                apply(recomputed, counted, change.current());
+            });
+            pendingChanges.clear();
+            long durationMs = System.currentTimeMillis() - started;
+            PriceStatisticsReport report = report(maintained, recomputed, true, durationMs);
+            groups = recomputed;
+            ready = true;
+            log.info("Computed price statistics for {} groups in {} ms", report.groupsChecked(), durationMs);
+            return report;
+        }
+    }
+
+    private static PriceStatisticsReport report(Groups maintained, Groups recomputed, boolean repaired,
+                                                long durationMs) {
+        List<PriceStatisticsReport.Mismatch> mismatches = new ArrayList<>();
+        compare("genre", maintained.genres(), recomputed.genres(), mismatches);
+        compare("author", maintained.authors(), recomputed.authors(), mismatches);
+        int groupsChecked = recomputed.genres().size() + recomputed.authors().size();
+        return new PriceStatisticsReport(groupsChecked, mismatches, repaired, durationMs);
+    }
+
+    /**
+     * Applies a write now, collects it for a running recompute, or drops it if the statistics are not in use.
+     */
+    private void record(Book previous, Book current) {
+        synchronized (writeLock) {
+            if (loading) {
+                long bookId = previous != null ? previous.getBookId() : current.getBookId();
+                pendingChanges.merge(bookId, new PendingChange(previous, current),
+                        (first, next) -> new PendingChange(first.previous(), next.current()));
+            } else if (ready) {
+                apply(groups, previous, current);
+            }
+        }
+    }
+
+    private static void apply(Groups target, Book previous, Book current) {
+        if (previous != null) {
+            target.remove(previous);
+        }
+        if (current != null) {
+            target.add(current);
+        }
+    }
+
+    /**
+     * Reads the catalog page by page in id order and aggregates each page on the common
+     * fork-join pool while the next one is being fetched.
+     *
+     * @param watermark books written at or after this time are kept in {@link Scan#recent()}
+     */
+    private Scan recompute(long watermark) {
+        List<CompletableFuture<Scan>> partials = new ArrayList<>();
+        Long lastId = Long.MIN_VALUE;
+        while (true) {
+            List<Book> page = bookStore.findAfter(lastId, PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            partials.add(CompletableFuture.supplyAsync(() -> aggregate(page, watermark)));
+            lastId = page.get(page.size() - 1).getBookId();
+        }
+
+        Groups merged = new Groups(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        Map<Long, Book> recent = new HashMap<>();
+        List<long[]> idPages = new ArrayList<>(partials.size());
+        int idCount = 0;
+        for (CompletableFuture<Scan> future : partials) {
+            Scan partial = future.join();
+            merged.merge(partial.groups());
+            recent.putAll(partial.recent());
+            idPages.add(partial.ids());
+            idCount += partial.ids().length;
+        }
+        long[] ids = new long[idCount];
+        int offset = 0;
+        for (long[] page : idPages) {
+            System.arraycopy(page, 0, ids, offset, page.length);
+            offset += page.length;
+        }
+        return new Scan(merged, ids, recent);
+    }
+
+    private static Scan aggregate(List<Book> books, long watermark) {
+        Groups partial = new Groups(new HashMap<>(), new HashMap<>());
+        long[] ids = new long[books.size()];
+        Map<Long, Book> recent = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            Book book = books.get(i);
+            partial.add(book);
+            ids[i] = book.getBookId();
+            if (book.getBookUpdatedAt() != null && book.getBookUpdatedAt() >= watermark) {
+                recent.put(book.getBookId(), book);
+            }
+        }
+        return new Scan(partial, ids, recent);
+    }
+
+    private static void compare(String dimension, Map<String, PriceAccumulator> maintained,
+                                Map<String, PriceAccumulator> recomputed,
+                                List<PriceStatisticsReport.Mismatch> mismatches) {
+        Set<String> keys = new HashSet<>(maintained.keySet());
+        keys.addAll(recomputed.keySet());
+        for (String group : keys) {
+            if (mismatches.size() >= MAX_REPORTED_MISMATCHES) {
+                return;
+            }
+            PriceAccumulator mine = maintained.get(group);
+            PriceAccumulator expected = recomputed.get(group);
+            if (mine == null || expected == null || !mine.sameAs(expected)) {
+                mismatches.add(new PriceStatisticsReport.Mismatch(dimension, group,
+                        mine == null ? null : mine.summary(group), expected == null ? null : expected.summary(group)));
+            }
+        }
+    }
+
+    private static List<PriceSummary> summaries(Map<String, PriceAccumulator> map) {
+        List<PriceSummary> summaries = new ArrayList<>(map.size());
+        map.forEach((group, accumulator) -> {
+            PriceSummary summary = accumulator.summary(group);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        });
+        summaries.sort(Comparator.comparing(PriceSummary::group));
+        return summaries;
+    }
+
+    /**
+     * Callers may keep mutating the book they passed in, so only a copy is queued.
+     */
+    private static Book copyOf(Book book) {
+        return new Book(book.getBookId(), book.getBookTitle(), book.getBookAuthor(), book.getBookGenre(),
+                book.getBookPrice(), book.getBookUpdatedAt());
+    }
+}
@@ -0,0 +1,107 @@
+package com.bookstore.catalog;
+
+import com.bookstore.entity.Book;
+import com.bookstore.repository.BookStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that writes arriving while the catalog loads are replayed on top of the
+ * loaded state, both for a full rebuild and for a restore from a snapshot.
+ */
+class ColumnarCatalogTests {
+
+	@TempDir
+	Path snapshotDir;
+
+	@Test
+	void replaysWritesMadeDuringRebuild() {
+		BookStore bookStore = mock(BookStore.class);
+		ColumnarCatalog catalog = newCatalog(bookStore, null);
+
+		when(bookStore.findAfter(eq(Long.MIN_VALUE), anyInt())).thenAnswer(invocation -> {
+			assertTrue(catalog.findAll().isEmpty());
+			catalog.bookUpdated(book(2, 10.0), book(2, 12.5));
+			catalog.bookDeleted(book(3, 10.0));
+			catalog.bookSaved(book(4, 7.0));
+			return List.of(book(1, 10.0), book(2, 10.0), book(3, 10.0));
+		});
+
+		catalog.rebuild();
+
+		assertTrue(catalog.isReady());
+		assertEquals(List.of(1L, 2L, 4L), ids(catalog.findAll()));
+		assertEquals(12.5, catalog.findAll().get(1).getBookPrice());
+	}
+
+	@Test
+	void ignoresWritesBeforeTheFirstLoad() {
+		BookStore bookStore = mock(BookStore.class);
+		ColumnarCatalog catalog = newCatalog(bookStore, null);
+
+		catalog.bookSaved(book(1, 10.0));
+
+		assertFalse(catalog.isReady());
+		assertEquals(0, catalog.size());
+	}
+
+	@Test
+	void replaysWritesMadeDuringSnapshotRestore() {
+		Path snapshot = snapshotDir.resolve("catalog.snapshot");
+		BookStore original = mock(BookStore.class);
+		when(original.findAfter(eq(Long.MIN_VALUE), anyInt()))
+				.thenReturn(List.of(book(1, 10.0), book(2, 10.0), book(3, 10.0)));
+		ColumnarCatalog writer = newCatalog(original, snapshot);
+		writer.rebuild();
+		writer.writeSnapshot();
+
+		BookStore bookStore = mock(BookStore.class);
+		ColumnarCatalog catalog = newCatalog(bookStore, snapshot);
+		when(bookStore.findUpdatedSince(anyLong())).thenReturn(List.of());
+		when(bookStore.findAllIds()).thenAnswer(invocation -> {
+			catalog.bookUpdated(book(1, 10.0), book(1, 9.0));
+			catalog.bookDeleted(book(2, 10.0));
+			catalog.bookSaved(book(5, 3.0));
+			return List.of(1L, 2L, 3L);
+		});
+
+		catalog.load();
+
+		assertTrue(catalog.isReady());
+		assertEquals(List.of(1L, 3L, 5L), ids(catalog.findAll()));
+		assertEquals(9.0, catalog.findAll().get(0).getBookPrice());
+	}
+
+	private static ColumnarCatalog newCatalog(BookStore bookStore, Path snapshot) {
+		ColumnarCatalog catalog = new ColumnarCatalog();
+		ReflectionTestUtils.setField(catalog, "bookStore", bookStore);
+		ReflectionTestUtils.setField(catalog, "enabled", true);
+		ReflectionTestUtils.setField(catalog, "parallelThreshold", Integer.MAX_VALUE);
+		ReflectionTestUtils.setField(catalog, "snapshotEnabled", snapshot != null);
+		ReflectionTestUtils.setField(catalog, "snapshotPath", snapshot == null ? "" : snapshot.toString());
+		ReflectionTestUtils.setField(catalog, "catchUpMarginMs", 0L);
+		return catalog;
+	}
+
+	private static Book book(long id, double price) {
+		return new Book(id, "Title " + id, "Author " + id, "Genre", price, 0L);
+	}
+
+	private static List<Long> ids(List<Book> books) {
+		return books.stream().map(Book::getBookId).toList();
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.bookstore.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the limiter never grants more than its budget when many threads share
+ * one bucket, and that eviction only drops idle buckets.
+ */
+class TokenBucketRateLimiterTests {
+
+	private static final int THREADS = 8;
+
+	private static final long RUN_NANOS = TimeUnit.MILLISECONDS.toNanos(300);
+
+	@Test
+	void rejectsOnceTheBurstIsSpent() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.001, 3, 60_000);
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(limiter.tryAcquire("client").allowed());
+		}
+		TokenBucketRateLimiter.Decision rejected = limiter.tryAcquire("client");
+		assertFalse(rejected.allowed());
+		assertTrue(rejected.retryAfterNanos() > 0);
+		assertTrue(limiter.tryAcquire("other").allowed());
+	}
+
+	@Test
+	void neverGrantsMoreThanBurstPlusRefillUnderContention() throws InterruptedException {
+		double permitsPerSecond = 10_000;
+		int burst = 100;
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(permitsPerSecond, burst, 60_000);
+
+		LongAdder granted = new LongAdder();
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			threads[i] = new Thread(() -> {
+				awaitQuietly(start);
+				long deadline = System.nanoTime() + RUN_NANOS;
+				while (System.nanoTime() < deadline) {
+					if (limiter.tryAcquire("shared").allowed()) {
+						granted.increment();
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		long started = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - started;
+
+		long budget = burst + (long) Math.ceil(permitsPerSecond * elapsed / 1e9);
+		assertTrue(granted.sum() <= budget, "granted " + granted.sum() + " of a budget of " + budget);
+		assertTrue(granted.sum() >= burst, "the burst should be granted in full");
+	}
+
+	@Test
+	void evictsOnlyIdleBuckets() throws InterruptedException {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1_000, 1, 1);
+
+		limiter.tryAcquire("idle");
+		limiter.tryAcquire("active");
+		assertEquals(2, limiter.size());
+
+		Thread.sleep(20);
+		limiter.tryAcquire("active");
+		limiter.evictIdle();
+		assertEquals(1, limiter.size());
+
+		assertTrue(limiter.tryAcquire("idle").allowed());
+		assertEquals(2, limiter.size());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.bookstore.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Publishes into the event ring from many threads and checks that every event is
+ * either written or counted as dropped.
+ */
+class EventLogTests {
+
+	private static final int THREADS = 8;
+
+	private static final int EVENTS_PER_THREAD = 200_000;
+
+	@Test
+	void accountsForEveryEventUnderContention() throws InterruptedException {
+		EventLog eventLog = newEventLog(1024);
+
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[THREADS];
+		for (int i = 0; i < THREADS; i++) {
+			int thread = i;
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				for (int n = 0; n < EVENTS_PER_THREAD; n++) {
+					eventLog.request("GET", "/api/books", 200, n, "user" + thread, "127.0.0.1");
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		eventLog.stop();
+
+		long attempted = (long) THREADS * EVENTS_PER_THREAD;
+		assertEquals(attempted, eventLog.writtenCount() + eventLog.droppedCount());
+		assertTrue(eventLog.writtenCount() > 0, "the appender should have written events");
+	}
+
+	@Test
+	void ignoresEventsWhenDisabled() throws InterruptedException {
+		EventLog eventLog = new EventLog();
+		ReflectionTestUtils.setField(eventLog, "enabled", false);
+		eventLog.start();
+
+		eventLog.catalogWrite("save", 1, "admin");
+		eventLog.stop();
+
+		assertEquals(0, eventLog.droppedCount());
+		assertEquals(0, eventLog.writtenCount());
+	}
+
+	private static EventLog newEventLog(int capacity) {
+		EventLog eventLog = new EventLog();
+		ReflectionTestUtils.setField(eventLog, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(eventLog, "enabled", true);
+		ReflectionTestUtils.setField(eventLog, "capacity", capacity);
+		eventLog.start();
+		return eventLog;
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.bookstore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+	private static final int ENTRIES = 100_000;
+
+	@Test
+	void neverMissesAnAddedValue() {
+		BloomFilter filter = new BloomFilter(ENTRIES, 0.001);
+		List<String> values = randomValues(ENTRIES);
+		values.forEach(filter::add);
+
+		for (String value : values) {
+			assertTrue(filter.mightContain(value), value);
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheConfiguredOne() {
+		for (double probability : new double[]{0.01, 0.001}) {
+			BloomFilter filter = new BloomFilter(ENTRIES, probability);
+			randomValues(ENTRIES).forEach(filter::add);
+
+			long falsePositives = randomValues(ENTRIES).stream().filter(filter::mightContain).count();
+			double rate = (double) falsePositives / ENTRIES;
+			assertTrue(rate < probability * 2, "false-positive rate " + rate + " for a target of " + probability);
+		}
+	}
+
+	@Test
+	void reportsTheCapacityItWasSizedFor() {
+		assertEquals(500, new BloomFilter(500, 0.01).capacity());
+		assertEquals(1, new BloomFilter(0, 0.01).capacity());
+	}
+
+	private static List<String> randomValues(int count) {
+		List<String> values = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			values.add(UUID.randomUUID().toString());
+		}
+		return values;
+	}
+
+}
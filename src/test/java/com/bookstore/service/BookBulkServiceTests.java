@@ -0,0 +1,126 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import com.bookstore.model.BulkBookRequest;
+import com.bookstore.model.BulkBookResult;
+import com.bookstore.stats.PriceStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bookstore.bulk.chunk-size=2")
+@ActiveProfiles("test")
+class BookBulkServiceTests {
+
+	@Autowired
+	private BookBulkService bookBulkService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private PriceStatistics priceStatistics;
+
+	private String genre;
+
+	private List<Book> books;
+
+	@BeforeEach
+	void setUp() {
+		genre = "Bulk " + UUID.randomUUID();
+		List<Book> seed = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			seed.add(new Book(null, "Bulk title " + i, "Bulk author", genre, 5.0 * i, null));
+		}
+		books = bookService.saveBooks(seed);
+	}
+
+	@AfterEach
+	void statisticsStayInStep() {
+		assertTrue(priceStatistics.verify(false).mismatches().isEmpty());
+	}
+
+	@Test
+	void setPriceCountsMatchedAndAffectedRowsAcrossChunks() {
+		BulkBookResult result = bookBulkService.apply(new BulkBookRequest(
+				new BookFilter(genre, null, 10.0, null), null, BulkBookRequest.Operation.SET_PRICE, 19.99, null, null));
+
+		assertEquals(4, result.matched());
+		assertEquals(4, result.affected());
+		assertEquals(2, result.chunks());
+		assertEquals(List.of(5.0, 19.99, 19.99, 19.99, 19.99), prices(genre));
+	}
+
+	@Test
+	void adjustsPricesByPercentRoundedToCents() {
+		bookBulkService.apply(new BulkBookRequest(new BookFilter(genre, null, null, null), null,
+				BulkBookRequest.Operation.SET_PRICE, 19.99, null, null));
+
+		BulkBookResult result = bookBulkService.apply(new BulkBookRequest(new BookFilter(genre, null, null, null),
+				null, BulkBookRequest.Operation.ADJUST_PRICE_PERCENT, null, -10.0, null));
+
+		assertEquals(5, result.matched());
+		assertEquals(5, result.affected());
+		assertEquals(List.of(17.99, 17.99, 17.99, 17.99, 17.99), prices(genre));
+	}
+
+	@Test
+	void idListIsDeduplicatedAndStillFiltered() {
+		String newGenre = genre + " moved";
+		List<Long> ids = List.of(id(0), id(0), id(1), id(3), Long.MAX_VALUE);
+
+		BulkBookResult result = bookBulkService.apply(new BulkBookRequest(new BookFilter(null, null, null, 15.0), ids,
+				BulkBookRequest.Operation.SET_GENRE, null, null, newGenre));
+
+		assertEquals(2, result.matched());
+		assertEquals(2, result.affected());
+		assertEquals(List.of(5.0, 10.0), prices(newGenre));
+		assertEquals(List.of(15.0, 20.0, 25.0), prices(genre));
+	}
+
+	@Test
+	void deleteRemovesEveryMatchingBook() {
+		BulkBookResult result = bookBulkService.apply(new BulkBookRequest(new BookFilter(genre, null, null, null), null,
+				BulkBookRequest.Operation.DELETE, null, null, null));
+
+		assertEquals(5, result.matched());
+		assertEquals(5, result.affected());
+		assertEquals(3, result.chunks());
+		assertTrue(prices(genre).isEmpty());
+	}
+
+	@Test
+	void rejectsRequestsWithoutCriteriaOrValue() {
+		assertThrows(InvalidBulkRequestException.class, () -> bookBulkService.apply(new BulkBookRequest(
+				new BookFilter(null, null, null, null), null, BulkBookRequest.Operation.DELETE, null, null, null)));
+		assertThrows(InvalidBulkRequestException.class, () -> bookBulkService.apply(new BulkBookRequest(
+				new BookFilter(genre, null, null, null), null, BulkBookRequest.Operation.SET_PRICE, null, null, null)));
+		assertThrows(InvalidBulkRequestException.class, () -> bookBulkService.apply(new BulkBookRequest(
+				null, List.of(), BulkBookRequest.Operation.DELETE, null, null, null)));
+	}
+
+	private long id(int index) {
+		return books.get(index).getBookId();
+	}
+
+	private List<Double> prices(String genre) {
+		return bookService.filterBooks(new BookFilter(genre, null, null, null)).stream()
+				.sorted(Comparator.comparing(Book::getBookId))
+				.map(Book::getBookPrice)
+				.toList();
+	}
+
+}
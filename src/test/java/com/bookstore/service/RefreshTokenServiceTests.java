@@ -0,0 +1,68 @@
+package com.bookstore.service;
+
+import com.bookstore.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceTests {
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepository;
+
+	@Test
+	void rotationIssuesANewTokenInTheSameFamily() {
+		String first = refreshTokenService.issue("alice");
+
+		RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+		assertEquals("alice", rotation.userName());
+		assertNotEquals(first, rotation.refreshToken());
+		assertEquals("alice", refreshTokenService.rotate(rotation.refreshToken()).userName());
+	}
+
+	@Test
+	void reusingARotatedTokenRevokesTheWholeFamily() {
+		String first = refreshTokenService.issue("bob");
+		String second = refreshTokenService.rotate(first).refreshToken();
+		String third = refreshTokenService.rotate(second).refreshToken();
+		String otherSession = refreshTokenService.issue("bob");
+		long before = refreshTokenRepository.count();
+
+		InvalidRefreshTokenException reuse = assertThrows(InvalidRefreshTokenException.class,
+				() -> refreshTokenService.rotate(first));
+		assertEquals("Refresh token already used", reuse.getMessage());
+
+		assertEquals(before - 3, refreshTokenRepository.count());
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(third));
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(second));
+		assertEquals("bob", refreshTokenService.rotate(otherSession).userName());
+	}
+
+	@Test
+	void revokeEndsTheFamilyOfAnyOfItsTokens() {
+		String first = refreshTokenService.issue("carol");
+		String second = refreshTokenService.rotate(first).refreshToken();
+
+		refreshTokenService.revoke(first);
+
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(second));
+	}
+
+	@Test
+	void rejectsMissingAndUnknownTokens() {
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(null));
+		assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("not-a-token"));
+	}
+
+}
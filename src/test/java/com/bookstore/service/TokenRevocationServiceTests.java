@@ -0,0 +1,103 @@
+package com.bookstore.service;
+
+import com.bookstore.entity.RevokedToken;
+import com.bookstore.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTests {
+
+	private RevokedTokenRepository repository;
+
+	private TokenRevocationService revocations;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(RevokedTokenRepository.class);
+		revocations = new TokenRevocationService();
+		ReflectionTestUtils.setField(revocations, "revokedTokenRepository", repository);
+		ReflectionTestUtils.setField(revocations, "expectedEntries", 4L);
+		ReflectionTestUtils.setField(revocations, "falsePositiveProbability", 0.001);
+		revocations.load();
+	}
+
+	@Test
+	void revokedTokenIsReportedUntilItExpires() throws InterruptedException {
+		revocations.revoke("short", Instant.now().plusMillis(100));
+		revocations.revoke("long", Instant.now().plusSeconds(3600));
+
+		assertTrue(revocations.isRevoked("short"));
+		assertTrue(revocations.isRevoked("long"));
+		assertFalse(revocations.isRevoked("other"));
+		assertFalse(revocations.isRevoked(null));
+
+		Thread.sleep(150);
+		assertFalse(revocations.isRevoked("short"));
+		assertTrue(revocations.isRevoked("long"));
+	}
+
+	@Test
+	void syncPurgesExpiredRevocations() throws InterruptedException {
+		revocations.sync();
+		verify(repository, never()).deleteExpired(any());
+
+		revocations.revoke("short", Instant.now().plusMillis(50));
+		revocations.revoke("long", Instant.now().plusSeconds(3600));
+		Thread.sleep(100);
+		revocations.sync();
+
+		verify(repository).deleteExpired(any());
+		assertFalse(revocations.isRevoked("short"));
+		assertTrue(revocations.isRevoked("long"));
+	}
+
+	@Test
+	void syncPullsRevocationsMadeOnOtherNodes() {
+		when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(
+				List.of(new RevokedToken("elsewhere", Instant.now().plusSeconds(3600), Instant.now())));
+
+		assertFalse(revocations.isRevoked("elsewhere"));
+		revocations.sync();
+
+		assertTrue(revocations.isRevoked("elsewhere"));
+	}
+
+	@Test
+	void bloomFilterIsRebuiltOnlyWhenOutgrown() {
+		assertEquals(4, revocations.bloomFilterCapacity());
+
+		revokeMany("first", 10);
+		revocations.sync();
+		assertEquals(20, revocations.bloomFilterCapacity());
+
+		revokeMany("second", 5);
+		revocations.sync();
+		assertEquals(20, revocations.bloomFilterCapacity());
+
+		revokeMany("third", 10);
+		revocations.sync();
+		assertEquals(50, revocations.bloomFilterCapacity());
+		assertTrue(revocations.isRevoked("first-0"));
+		assertTrue(revocations.isRevoked("third-9"));
+	}
+
+	private void revokeMany(String prefix, int count) {
+		for (int i = 0; i < count; i++) {
+			revocations.revoke(prefix + "-" + i, Instant.now().plusSeconds(3600));
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+package com.bookstore.sharding;
+
+import com.bookstore.config.ShardingProperties;
+import com.bookstore.entity.Book;
+import com.bookstore.model.BookFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the sharded store against four in-memory H2 shards, like the ones application.yml
+ * configures, with fresh databases for every test.
+ */
+class ShardedBookStoreTests {
+
+	private static final int SHARDS = 4;
+
+	private final List<JdbcTemplate> shardJdbc = new ArrayList<>();
+
+	private ShardedBookStore store;
+
+	@BeforeEach
+	void setUp() {
+		ShardingProperties properties = new ShardingProperties();
+		properties.setShardTimeoutMs(1000);
+		properties.setMaxPoolSize(2);
+		String name = UUID.randomUUID().toString();
+		for (int i = 0; i < SHARDS; i++) {
+			ShardingProperties.Shard shard = new ShardingProperties.Shard();
+			shard.setUrl("jdbc:h2:mem:shard-test-" + name + "-" + i);
+			properties.getShards().add(shard);
+		}
+		store = new ShardedBookStore();
+		ReflectionTestUtils.setField(store, "properties", properties);
+		store.init();
+		for (ShardingProperties.Shard shard : properties.getShards()) {
+			shardJdbc.add(new JdbcTemplate(new DriverManagerDataSource(shard.getUrl(), "sa", "")));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.close();
+	}
+
+	@Test
+	void spreadsBooksOverTheShardsAndReadsThemBackInIdOrder() {
+		List<Book> saved = store.saveAll(newBooks("Spread", 40));
+
+		for (int i = 0; i < SHARDS; i++) {
+			assertTrue(rowCount(i) > 0, "shard " + i + " holds no books");
+		}
+		List<Long> ids = saved.stream().map(Book::getBookId).sorted().toList();
+		assertEquals(ids, store.findAll().stream().map(Book::getBookId).toList());
+		assertEquals(ids, store.findAllIds());
+		assertEquals(ids.subList(10, 15), store.findAfter(ids.get(9), 5).stream().map(Book::getBookId).toList());
+		assertEquals(ids.reversed().subList(0, 3), store.findLatest(3).stream().map(Book::getBookId).toList());
+		assertEquals(saved.get(7).getBookTitle(), store.findById(saved.get(7).getBookId()).orElseThrow().getBookTitle());
+	}
+
+	@Test
+	void savingTheSameBooksAgainUpdatesInsteadOfDuplicating() {
+		List<Book> books = store.saveAll(newBooks("Retry", 20));
+		books.forEach(book -> book.setBookPrice(99.0));
+
+		store.saveAll(books);
+
+		assertEquals(20, store.findAll().size());
+		assertTrue(store.findAll().stream().allMatch(book -> book.getBookPrice() == 99.0));
+	}
+
+	@Test
+	void revertsTheCommittedShardsWhenALaterShardFails() {
+		Book onFirst = idOnShard(0, "Original 0");
+		Book onSecond = idOnShard(1, "Original 1");
+		store.saveAll(List.of(onFirst, onSecond));
+		shardJdbc.get(SHARDS - 1).execute("alter table book add constraint no_negative_price check (book_price >= 0)");
+
+		Book changedFirst = copyOf(onFirst);
+		changedFirst.setBookTitle("Changed 0");
+		Book changedSecond = copyOf(onSecond);
+		changedSecond.setBookTitle("Changed 1");
+		Book inserted = idOnShard(2, "Inserted 2");
+		Book failing = idOnShard(SHARDS - 1, "Failing");
+		failing.setBookPrice(-1.0);
+
+		assertThrows(DataAccessException.class,
+				() -> store.saveAll(List.of(changedFirst, changedSecond, inserted, failing)));
+
+		assertEquals(List.of("Original 0", "Original 1"), store.findAll().stream().map(Book::getBookTitle).toList());
+		assertEquals(0, rowCount(2));
+		assertEquals(0, rowCount(SHARDS - 1));
+	}
+
+	@Test
+	void filtersAcrossShards() {
+		List<Book> books = newBooks("Filter", 30);
+		for (int i = 0; i < books.size(); i++) {
+			books.get(i).setBookGenre(i % 3 == 0 ? "Poetry" : "Prose");
+		}
+		store.saveAll(books);
+
+		List<Book> poetry = store.filter(new BookFilter("poetry", null, 20.0, null));
+
+		assertTrue(poetry.stream().allMatch(book -> book.getBookGenre().equals("Poetry") && book.getBookPrice() >= 20));
+		assertEquals(books.stream().filter(book -> book.getBookGenre().equals("Poetry") && book.getBookPrice() >= 20)
+				.count(), poetry.size());
+		assertEquals(poetry.stream().sorted(Comparator.comparing(Book::getBookId)).toList(), poetry);
+	}
+
+	@Test
+	void failsTheReadWhenAShardDoesNotAnswerInTime() {
+		store.saveAll(List.of(idOnShard(1, "Slow")));
+		JdbcTemplate slow = shardJdbc.get(1);
+		slow.execute("create alias pause for \"java.lang.Thread.sleep(long)\"");
+		slow.execute("alter table book rename to book_data");
+		slow.execute("create view book as select * from book_data where pause(5000) is null");
+
+		assertThrows(QueryTimeoutException.class, () -> store.findAll());
+	}
+
+	@Test
+	void mergesSortedPartsUpToTheLimit() {
+		List<List<Book>> parts = List.of(
+				List.of(book(1), book(4), book(9)),
+				List.of(),
+				List.of(book(2), book(3), book(10)),
+				List.of(book(5)));
+		Comparator<Book> byId = Comparator.comparing(Book::getBookId);
+
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 9L, 10L),
+				ShardedBookStore.mergeById(parts, Integer.MAX_VALUE, byId).stream().map(Book::getBookId).toList());
+		assertEquals(List.of(1L, 2L, 3L),
+				ShardedBookStore.mergeById(parts, 3, byId).stream().map(Book::getBookId).toList());
+
+		List<List<Book>> descending = parts.stream().map(List::reversed).toList();
+		assertEquals(List.of(10L, 9L),
+				ShardedBookStore.mergeById(descending, 2, byId.reversed()).stream().map(Book::getBookId).toList());
+	}
+
+	private int rowCount(int shard) {
+		return shardJdbc.get(shard).queryForObject("select count(*) from book", Integer.class);
+	}
+
+	/**
+	 * Creates a book with an id the store places on the given shard, so a test can aim at one shard.
+	 */
+	private static Book idOnShard(int shard, String title) {
+		long id = 1_000L * (shard + 1);
+		while (Math.floorMod(ShardedBookStore.mix(id), SHARDS) != shard) {
+			id++;
+		}
+		return new Book(id, title, "Author", "Genre", 10.0, null);
+	}
+
+	private static List<Book> newBooks(String title, int count) {
+		List<Book> books = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			books.add(new Book(null, title + " " + i, "Author " + i % 4, "Genre", 5.0 + i, null));
+		}
+		return books;
+	}
+
+	private static Book book(long id) {
+		return new Book(id, "Title " + id, null, null, null, null);
+	}
+
+	private static Book copyOf(Book book) {
+		return new Book(book.getBookId(), book.getBookTitle(), book.getBookAuthor(), book.getBookGenre(),
+				book.getBookPrice(), book.getBookUpdatedAt());
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.bookstore.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTests {
+
+	@Test
+	void borrowsFromTheNextMillisecondBeyond4096Ids() {
+		long now = System.currentTimeMillis();
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, () -> now);
+
+		long previous = generator.nextId();
+		for (int i = 1; i < 3 * 4096; i++) {
+			long next = generator.nextId();
+			assertTrue(next > previous, "id " + next + " after " + previous);
+			assertEquals(7, (next >>> 12) & 1023);
+			previous = next;
+		}
+		assertEquals(now + 2, millisOf(previous));
+		assertEquals(4095, previous & 4095);
+	}
+
+	@Test
+	void staysIncreasingWhenTheClockGoesBack() {
+		AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, clock::get);
+
+		long before = generator.nextId();
+		clock.addAndGet(-5_000);
+		long after = generator.nextId();
+
+		assertTrue(after > before);
+		assertEquals(millisOf(before), millisOf(after));
+	}
+
+	@Test
+	void idsAreUniqueAcrossThreads() throws InterruptedException {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 50_000; i++) {
+					ids.add(generator.nextId());
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(200_000, ids.size());
+	}
+
+	@Test
+	void encodesTheWorkerIdAndCurrentTime() {
+		long id = new SnowflakeIdGenerator(1023).nextId();
+
+		assertEquals(1023, (id >>> 12) & 1023);
+		assertTrue(Math.abs(millisOf(id) - System.currentTimeMillis()) < 1000);
+	}
+
+	@Test
+	void rejectsWorkerIdsOutOfRange() {
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+		assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(1024));
+	}
+
+	private static long millisOf(long id) {
+		return (id >>> 22) + SnowflakeIdGenerator.EPOCH_MILLIS;
+	}
+
+}
@@ -0,0 +1,257 @@
+package com.bookstore.stats;
+
+import com.bookstore.entity.Book;
+import com.bookstore.model.PriceStatisticsReport;
+import com.bookstore.model.PriceSummary;
+import com.bookstore.repository.BookStore;
+import com.bookstore.model.BookFilter;
+import com.bookstore.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the price statistics against an in-memory catalog and checks that the maintained
+ * statistics match a full recompute after a mix of writes, including writes and bulk
+ * changes that land while a recompute is running.
+ */
+class PriceStatisticsTests {
+
+	private final TreeMap<Long, Book> catalog = new TreeMap<>();
+
+	private PriceStatistics statistics;
+
+	private Runnable beforeScan;
+
+	private Runnable afterScan;
+
+	private int scans;
+
+	@BeforeEach
+	void setUp() {
+		BookStore bookStore = mock(BookStore.class);
+		when(bookStore.findAfter(anyLong(), anyInt())).thenAnswer(invocation -> {
+			Long lastId = invocation.getArgument(0);
+			int limit = invocation.getArgument(1);
+			if (lastId == Long.MIN_VALUE) {
+				scans++;
+				runOnce(beforeScan);
+				beforeScan = null;
+			}
+			List<Book> page = catalog.tailMap(lastId, false).values().stream()
+					.limit(limit)
+					.map(PriceStatisticsTests::copyOf)
+					.toList();
+			if (page.isEmpty()) {
+				runOnce(afterScan);
+				afterScan = null;
+			}
+			return page;
+		});
+
+		statistics = new PriceStatistics();
+		ReflectionTestUtils.setField(statistics, "bookStore", bookStore);
+		ReflectionTestUtils.setField(statistics, "enabled", true);
+		ReflectionTestUtils.setField(statistics, "recomputeMarginMs", 5000L);
+
+		for (long id = 1; id <= 6; id++) {
+			catalog.put(id, new Book(id, "Title " + id, "Author " + (id % 2), id <= 3 ? "Fantasy" : "Crime",
+					10.0 * id, 0L));
+		}
+	}
+
+	@Test
+	void matchesARecomputeAfterAMixOfWrites() {
+		statistics.verify(true);
+
+		save(new Book(7L, "Title 7", "Author 1", "Fantasy", 5.0, null));
+		update(1L, book -> book.setBookPrice(15.0));
+		update(4L, book -> book.setBookGenre("Fantasy"));
+		update(2L, book -> book.setBookPrice(null));
+		delete(6L);
+		update(7L, book -> book.setBookPrice(25.0));
+
+		assertNoMismatches(statistics.verify(false));
+		assertEquals(new PriceSummary("Fantasy", 4, 15.0, 40.0, 27.5), genre("Fantasy"));
+		assertEquals(new PriceSummary("Crime", 1, 50.0, 50.0, 50.0), genre("Crime"));
+	}
+
+	@Test
+	void reconcilesWritesMadeDuringARecompute() {
+		statistics.verify(true);
+
+		beforeScan = () -> {
+			update(1L, book -> book.setBookPrice(11.0));
+			save(new Book(8L, "Title 8", "Author 0", "Crime", 80.0, null));
+		};
+		afterScan = () -> {
+			update(2L, book -> book.setBookGenre("Crime"));
+			update(1L, book -> book.setBookPrice(12.0));
+			delete(3L);
+			save(new Book(9L, "Title 9", "Author 1", "Fantasy", 90.0, null));
+		};
+		PriceStatisticsReport report = statistics.verify(true);
+
+		assertNoMismatches(report);
+		assertNoMismatches(statistics.verify(false));
+		assertEquals(new PriceSummary("Fantasy", 2, 12.0, 90.0, 51.0), genre("Fantasy"));
+	}
+
+	@Test
+	void recomputesAgainAfterABulkChangeDuringARecompute() {
+		statistics.verify(true);
+		scans = 0;
+
+		beforeScan = () -> {
+			catalog.values().forEach(book -> book.setBookPrice(book.getBookPrice() * 2));
+			statistics.catalogChanged();
+		};
+		statistics.verify(true);
+
+		assertEquals(2, scans);
+		assertNoMismatches(statistics.verify(false));
+		assertEquals(new PriceSummary("Crime", 3, 80.0, 120.0, 100.0), genre("Crime"));
+	}
+
+	/**
+	 * Writes through the book service against the database, where concurrent writes of
+	 * the same book must each report the state the previous one left.
+	 */
+	@Nested
+	@SpringBootTest
+	@ActiveProfiles("test")
+	class ConcurrentWrites {
+
+		private static final int THREADS = 8;
+
+		@Autowired
+		private BookService bookService;
+
+		@Autowired
+		private PriceStatistics priceStatistics;
+
+		private String genre;
+
+		private Long bookId;
+
+		@BeforeEach
+		void setUp() {
+			priceStatistics.verify(true);
+			genre = "Concurrent " + UUID.randomUUID();
+			bookId = bookService.saveBook(new Book(null, "Contended", "Contended author", genre, 10.0, null)).getBookId();
+		}
+
+		@Test
+		void concurrentUpdatesOfOneBookKeepTheStatisticsExact() throws Exception {
+			runConcurrently(i -> bookService.updateBook(bookId, new Book(null, null, null, null, 20.0 + i, null)));
+
+			List<Book> stored = bookService.filterBooks(new BookFilter(genre, null, null, null));
+			assertEquals(1, stored.size());
+			double price = stored.get(0).getBookPrice();
+			assertEquals(new PriceSummary(genre, 1, price, price, price), genreOf(genre));
+			assertNoMismatches(priceStatistics.verify(false));
+		}
+
+		@Test
+		void concurrentDeletesOfOneBookNotifyOnce() throws Exception {
+			runConcurrently(i -> bookService.deleteBookByBookId(bookId));
+
+			assertTrue(bookService.filterBooks(new BookFilter(genre, null, null, null)).isEmpty());
+			assertTrue(priceStatistics.byGenre().stream().noneMatch(summary -> summary.group().equals(genre)));
+			assertNoMismatches(priceStatistics.verify(false));
+		}
+
+		private void runConcurrently(IntConsumer write) throws Exception {
+			ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+			try {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < THREADS; i++) {
+					int index = i;
+					futures.add(executor.submit(() -> {
+						start.await();
+						write.accept(index);
+						return null;
+					}));
+				}
+				start.countDown();
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+
+		private PriceSummary genreOf(String genre) {
+			return priceStatistics.byGenre().stream()
+					.filter(summary -> summary.group().equals(genre))
+					.findFirst()
+					.orElseThrow();
+		}
+	}
+
+	private void save(Book book) {
+		book.touch();
+		catalog.put(book.getBookId(), book);
+		statistics.bookSaved(copyOf(book));
+	}
+
+	private void update(long id, Consumer<Book> change) {
+		Book previous = copyOf(catalog.get(id));
+		Book current = copyOf(previous);
+		change.accept(current);
+		current.touch();
+		catalog.put(id, current);
+		statistics.bookUpdated(previous, copyOf(current));
+	}
+
+	private void delete(long id) {
+		statistics.bookDeleted(catalog.remove(id));
+	}
+
+	private PriceSummary genre(String genre) {
+		return statistics.byGenre().stream()
+				.filter(summary -> summary.group().equals(genre))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private static void assertNoMismatches(PriceStatisticsReport report) {
+		assertTrue(report.mismatches().isEmpty(), () -> "mismatches: " + report.mismatches());
+	}
+
+	private static void runOnce(Runnable hook) {
+		if (hook != null) {
+			hook.run();
+		}
+	}
+
+	private static Book copyOf(Book book) {
+		return new Book(book.getBookId(), book.getBookTitle(), book.getBookAuthor(), book.getBookGenre(),
+				book.getBookPrice(), book.getBookUpdatedAt());
+	}
+
+}